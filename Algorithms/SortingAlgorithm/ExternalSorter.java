@@ -0,0 +1,393 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Sorts files of fixed-width records that are too large to sort in memory.
+ *
+ * The input is read in chunks that fit in the memory budget. Each chunk is
+ * sorted with Sorting.mergeSort, through one scratch array reused for every
+ * chunk, and written to a temporary run file. Runs are
+ * then merged up to fanIn at a time, with a PriorityQueue holding the head
+ * record of every run, until a single merge can write the output. Every run
+ * is read and written through a FileChannel with its own ByteBuffer, and the
+ * budget is shared between the buffers of a merge.
+ *
+ * The sort is stable: records that compare equal keep their order in the
+ * input.
+ */
+public class ExternalSorter {
+
+    /**
+     * The default memory budget, 64 MB.
+     */
+    public static final long DEFAULT_MEMORY_BUDGET = 64L << 20;
+
+    /**
+     * The default maximum number of runs merged at once.
+     */
+    public static final int DEFAULT_FAN_IN = 64;
+
+    /**
+     * The approximate size of an array header in bytes, counted against the
+     * budget for every record held in memory.
+     */
+    private static final int ARRAY_HEADER = 16;
+
+    /**
+     * The size of a reference in bytes, taken as 8 so the estimate also
+     * holds without compressed references.
+     */
+    private static final int REFERENCE_SIZE = 8;
+
+    private final int recordSize;
+    private final Comparator<byte[]> comparator;
+    private final long memoryBudget;
+    private final int fanIn;
+    private final Path tempDir;
+
+    /**
+     * Constructs a sorter that orders records by their bytes as unsigned
+     * values, with the default memory budget and fan-in, and temporary files
+     * in the default temporary directory.
+     *
+     * @param recordSize the length of every record in bytes
+     * @throws java.lang.IllegalArgumentException if recordSize is less than 1
+     */
+    public ExternalSorter(int recordSize) {
+        this(recordSize, Arrays::compareUnsigned, DEFAULT_MEMORY_BUDGET, DEFAULT_FAN_IN, null);
+    }
+
+    /**
+     * Constructs a sorter.
+     *
+     * The memory budget covers everything the sort holds in memory. While
+     * runs are created, every record costs its bytes plus an array header,
+     * rounded up to 8 bytes, and one reference in each of the chunk and the
+     * scratch array of the merge sort. Small records can therefore cost
+     * several times their length. The I/O buffers come out of the same
+     * budget.
+     *
+     * @param recordSize   the length of every record in bytes
+     * @param comparator   the Comparator used to compare records
+     * @param memoryBudget the number of bytes of records to hold in memory
+     * @param fanIn        the maximum number of runs merged at once
+     * @param tempDir      the directory for run files, or null for the
+     *                     default temporary directory
+     * @throws java.lang.IllegalArgumentException if recordSize is less than 1,
+     *                                            comparator is null, fanIn is
+     *                                            less than 2, or the budget
+     *                                            does not hold one record per
+     *                                            run of a merge plus the output
+     */
+    public ExternalSorter(int recordSize, Comparator<byte[]> comparator, long memoryBudget, int fanIn,
+                          Path tempDir) {
+        if (recordSize < 1) {
+            throw new IllegalArgumentException("Record size must be at least 1");
+        }
+        if (comparator == null) {
+            throw new IllegalArgumentException("Cannot sort with null comparator");
+        }
+        if (fanIn < 2) {
+            throw new IllegalArgumentException("Fan-in must be at least 2");
+        }
+        if (memoryBudget / recordSize < fanIn + 1) {
+            throw new IllegalArgumentException("Memory budget is too small for the fan-in");
+        }
+        this.recordSize = recordSize;
+        this.comparator = comparator;
+        this.memoryBudget = memoryBudget;
+        this.fanIn = fanIn;
+        this.tempDir = tempDir;
+    }
+
+    /**
+     * Sorts the records of input into output. The output is replaced if it
+     * exists. It must not be the same file as the input.
+     *
+     * Must be O(n log n) comparisons and O(log_fanIn(n / m)) passes over the
+     * data on disk, where m is the number of records that fit in the budget.
+     *
+     * @param input  the file to sort
+     * @param output the file to write the sorted records to
+     * @throws java.lang.IllegalArgumentException if input or output is null,
+     *                                            or the length of input is not
+     *                                            a multiple of the record size
+     * @throws java.io.IOException                if reading or writing fails
+     */
+    public void sort(Path input, Path output) throws IOException {
+        if (input == null || output == null) {
+            throw new IllegalArgumentException("Cannot sort with null file");
+        }
+        if (Files.size(input) % recordSize != 0) {
+            throw new IllegalArgumentException("File length is not a multiple of the record size");
+        }
+        List<Path> tempFiles = new ArrayList<>();
+        try {
+            List<Path> runs = new ArrayList<>();
+            long start = SortStats.startPhase();
+            createRuns(input, runs, tempFiles);
+            SortStats.endPhase("runs", start);
+            start = SortStats.startPhase();
+            while (runs.size() > fanIn) {
+                List<Path> merged = new ArrayList<>();
+                for (int i = 0; i < runs.size(); i += fanIn) {
+                    List<Path> group = runs.subList(i, Math.min(i + fanIn, runs.size()));
+                    Path run = createRunFile(tempFiles);
+                    merged.add(run);
+                    merge(group, run);
+                    for (Path used : group) {
+                        Files.delete(used);
+                    }
+                }
+                runs = merged;
+            }
+            merge(runs, output);
+            SortStats.endPhase("merge", start);
+        } finally {
+            for (Path file : tempFiles) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    /**
+     * Reads the input one budget-sized chunk at a time, sorts each chunk and
+     * writes it to a new run file. The record arrays, the chunk and the
+     * scratch array of the merge sort are allocated once and reused for
+     * every chunk.
+     * @param input the file to sort
+     * @param runs the list to add the run files to
+     * @param tempFiles the list of every temporary file created
+     * @throws java.io.IOException if reading or writing fails
+     */
+    private void createRuns(Path input, List<Path> runs, List<Path> tempFiles) throws IOException {
+        int size = bufferSize(fanIn + 1);
+        long footprint = ((ARRAY_HEADER + recordSize + 7L) & ~7L) + 2L * REFERENCE_SIZE;
+        long fit = Math.max(1, (memoryBudget - 2L * size) / footprint);
+        try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ)) {
+            long remaining = in.size() / recordSize;
+            int maxRecords = (int) Math.min(Math.min(fit, remaining), Integer.MAX_VALUE - 8);
+            byte[][] chunk = new byte[maxRecords][];
+            for (int i = 0; i < maxRecords; i++) {
+                chunk[i] = new byte[recordSize];
+            }
+            byte[][] scratch = new byte[maxRecords][];
+            ByteBuffer buffer = ByteBuffer.allocate(size);
+            buffer.flip();
+            while (remaining > 0) {
+                int count = (int) Math.min(maxRecords, remaining);
+                remaining -= count;
+                byte[][] records = count == maxRecords ? chunk : Arrays.copyOf(chunk, count);
+                for (int i = 0; i < count; i++) {
+                    if (!buffer.hasRemaining()) {
+                        buffer.clear();
+                        buffer.limit((int) Math.min(size, ((long) count - i) * recordSize));
+                        readFully(in, buffer);
+                        buffer.flip();
+                    }
+                    buffer.get(records[i]);
+                }
+                Sorting.mergeSort(records, comparator, scratch);
+                Path run = createRunFile(tempFiles);
+                runs.add(run);
+                try (RunWriter writer = new RunWriter(run, size)) {
+                    for (byte[] record : records) {
+                        writer.write(record);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Merges sorted runs into one sorted file. When records are equal, the
+     * one from the earlier run comes first, which keeps the sort stable.
+     * @param runs the run files to merge, in input order
+     * @param output the file to write the merged records to
+     * @throws java.io.IOException if reading or writing fails
+     */
+    private void merge(List<Path> runs, Path output) throws IOException {
+        int size = bufferSize(runs.size() + 1);
+        Comparator<byte[]> comparator = SortStats.counting(this.comparator);
+        List<RunReader> readers = new ArrayList<>(runs.size());
+        PriorityQueue<RunReader> heads = new PriorityQueue<>(Math.max(1, runs.size()), (r1, r2) -> {
+            int cmp = comparator.compare(r1.head, r2.head);
+            return cmp != 0 ? cmp : Integer.compare(r1.index, r2.index);
+        });
+        try (RunWriter writer = new RunWriter(output, size)) {
+            for (int i = 0; i < runs.size(); i++) {
+                RunReader reader = new RunReader(runs.get(i), i, size);
+                readers.add(reader);
+                if (reader.advance()) {
+                    heads.add(reader);
+                }
+            }
+            while (!heads.isEmpty()) {
+                RunReader reader = heads.poll();
+                writer.write(reader.head);
+                if (reader.advance()) {
+                    heads.add(reader);
+                }
+            }
+        } finally {
+            for (RunReader reader : readers) {
+                reader.close();
+            }
+        }
+    }
+
+    /**
+     * Returns the size of each buffer when the budget is shared by the given
+     * number of buffers, as a whole number of records.
+     * @param buffers the number of buffers
+     * @return the size of each buffer in bytes
+     */
+    private int bufferSize(int buffers) {
+        long records = Math.max(1, memoryBudget / buffers / recordSize);
+        return (int) Math.min(records, Integer.MAX_VALUE / recordSize) * recordSize;
+    }
+
+    /**
+     * Creates an empty temporary run file.
+     * @param tempFiles the list of every temporary file created, to add the
+     *                  new file to
+     * @return the path of the run file
+     * @throws java.io.IOException if the file cannot be created
+     */
+    private Path createRunFile(List<Path> tempFiles) throws IOException {
+        Path run = tempDir == null
+                ? Files.createTempFile("sort-run", ".tmp")
+                : Files.createTempFile(tempDir, "sort-run", ".tmp");
+        tempFiles.add(run);
+        return run;
+    }
+
+    /**
+     * Reads from the channel until the buffer is full.
+     * @param channel the channel to read from
+     * @param buffer the buffer to fill
+     * @throws java.io.IOException if the channel ends first or reading fails
+     */
+    private static void readFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new IOException("Unexpected end of file");
+            }
+        }
+    }
+
+    /**
+     * Reads the records of a run one at a time through a buffer.
+     */
+    private final class RunReader implements AutoCloseable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+        private final int index;
+        private byte[] head;
+
+        /**
+         * Opens a run.
+         * @param run the run file
+         * @param index the position of the run in the merge
+         * @param size the size of the buffer in bytes
+         * @throws java.io.IOException if the file cannot be opened
+         */
+        RunReader(Path run, int index, int size) throws IOException {
+            this.channel = FileChannel.open(run, StandardOpenOption.READ);
+            this.buffer = ByteBuffer.allocate(size);
+            this.index = index;
+            buffer.flip();
+        }
+
+        /**
+         * Reads the next record into head.
+         * @return false if the run has no more records
+         * @throws java.io.IOException if reading fails
+         */
+        boolean advance() throws IOException {
+            if (!buffer.hasRemaining()) {
+                buffer.clear();
+                while (buffer.hasRemaining()) {
+                    if (channel.read(buffer) < 0) {
+                        break;
+                    }
+                }
+                buffer.flip();
+                if (!buffer.hasRemaining()) {
+                    head = null;
+                    return false;
+                }
+            }
+            head = new byte[recordSize];
+            buffer.get(head);
+            return true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    /**
+     * Writes records to a file through a buffer.
+     */
+    private static final class RunWriter implements AutoCloseable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+
+        /**
+         * Creates or truncates a file for writing.
+         * @param path the file to write
+         * @param size the size of the buffer in bytes
+         * @throws java.io.IOException if the file cannot be opened
+         */
+        RunWriter(Path path, int size) throws IOException {
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            this.buffer = ByteBuffer.allocate(size);
+        }
+
+        /**
+         * Appends a record.
+         * @param record the record to write
+         * @throws java.io.IOException if writing fails
+         */
+        void write(byte[] record) throws IOException {
+            if (buffer.remaining() < record.length) {
+                flush();
+            }
+            buffer.put(record);
+        }
+
+        /**
+         * Writes out the buffered records.
+         * @throws java.io.IOException if writing fails
+         */
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                flush();
+            } finally {
+                channel.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,274 @@
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Opt-in statistics for the sorts in Sorting and ExternalSorter.
+ *
+ * Recording is compiled in only when the JVM runs with
+ * -Dsorting.stats=true. Every hook in Sorting first checks ENABLED, which is
+ * a static final constant, so when the property is not set the JIT removes
+ * the hooks and the sorts run exactly as without them. When it is set, wrap
+ * the sorts to measure:
+ *
+ * SortStats stats = new SortStats();
+ * stats.record(() -> Sorting.introSort(arr, comparator));
+ * System.out.println(stats);
+ *
+ * A SortStats records:
+ * comparisons, the calls to the Comparator (as in CharacterComparator) plus
+ * the compare-exchanges of sorting networks;
+ * moves, the writes of elements into arrays, counting a swap as two;
+ * the maximum recursion depth, or for iterative sorts the depth they stand
+ * in for: the run stack of naturalMergeSort, the digit of the MSD sorts and
+ * the partition rounds of select;
+ * and the elapsed time of each named phase, such as "histogram" and
+ * "scatter" in the radix sorts.
+ *
+ * Comparisons are counted on every thread. Moves, depth and phases are only
+ * recorded on the thread that called record, so the work done by the worker
+ * threads of the parallel sorts shows up in comparisons and phase times only.
+ * A SortStats should record on one thread at a time.
+ */
+public class SortStats {
+
+    /**
+     * Whether recording is compiled in, from the system property
+     * sorting.stats.
+     */
+    public static final boolean ENABLED = Boolean.getBoolean("sorting.stats");
+
+    private static final ThreadLocal<SortStats> CURRENT = new ThreadLocal<>();
+
+    private final LongAdder comparisons = new LongAdder();
+    private long moves;
+    private int depth;
+    private int maxDepth;
+    private final Map<String, Long> phaseNanos = new LinkedHashMap<>();
+
+    /**
+     * Runs the sort with this SortStats recording it on the calling thread.
+     * Does nothing but run the sort if ENABLED is false.
+     *
+     * @param sort the sort to run
+     * @throws java.lang.IllegalArgumentException if sort is null
+     */
+    public void record(Runnable sort) {
+        if (sort == null) {
+            throw new IllegalArgumentException("Cannot record null sort");
+        }
+        SortStats previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            sort.run();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Returns a Comparator that counts its calls into the SortStats
+     * recording the calling thread, or comparator itself if there is none.
+     *
+     * @param comparator the Comparator to count
+     * @param <T> the type compared
+     * @return the counting Comparator
+     */
+    static <T> Comparator<T> counting(Comparator<T> comparator) {
+        if (!ENABLED) {
+            return comparator;
+        }
+        SortStats stats = CURRENT.get();
+        if (stats == null || comparator instanceof CountingComparator) {
+            return comparator;
+        }
+        return new CountingComparator<>(comparator, stats.comparisons);
+    }
+
+    /**
+     * Adds comparisons that were not made through a Comparator.
+     *
+     * @param count the number of comparisons
+     */
+    static void comparisons(long count) {
+        if (ENABLED) {
+            SortStats stats = CURRENT.get();
+            if (stats != null) {
+                stats.comparisons.add(count);
+            }
+        }
+    }
+
+    /**
+     * Adds element writes.
+     *
+     * @param count the number of writes
+     */
+    static void moves(long count) {
+        if (ENABLED) {
+            SortStats stats = CURRENT.get();
+            if (stats != null) {
+                stats.moves += count;
+            }
+        }
+    }
+
+    /**
+     * Records entry into one more level of recursion.
+     */
+    static void enter() {
+        if (ENABLED) {
+            SortStats stats = CURRENT.get();
+            if (stats != null) {
+                stats.depth++;
+                stats.maxDepth = Math.max(stats.maxDepth, stats.depth);
+            }
+        }
+    }
+
+    /**
+     * Records return from a level of recursion.
+     */
+    static void exit() {
+        if (ENABLED) {
+            SortStats stats = CURRENT.get();
+            if (stats != null) {
+                stats.depth--;
+            }
+        }
+    }
+
+    /**
+     * Records that an iterative sort reached the given depth.
+     *
+     * @param depth the depth reached
+     */
+    static void depth(int depth) {
+        if (ENABLED) {
+            SortStats stats = CURRENT.get();
+            if (stats != null) {
+                stats.maxDepth = Math.max(stats.maxDepth, depth);
+            }
+        }
+    }
+
+    /**
+     * Marks the start of a phase.
+     *
+     * @return the start time to pass to endPhase, or 0 if nothing is being
+     * recorded
+     */
+    static long startPhase() {
+        if (ENABLED && CURRENT.get() != null) {
+            return System.nanoTime();
+        }
+        return 0;
+    }
+
+    /**
+     * Adds the time since start to the named phase.
+     *
+     * @param name the name of the phase
+     * @param start the value returned by startPhase
+     */
+    static void endPhase(String name, long start) {
+        if (ENABLED) {
+            SortStats stats = CURRENT.get();
+            if (stats != null) {
+                stats.phaseNanos.merge(name, System.nanoTime() - start, Long::sum);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of comparisons recorded.
+     *
+     * @return the comparison count
+     */
+    public long getComparisonCount() {
+        return comparisons.sum();
+    }
+
+    /**
+     * Returns the number of element writes recorded.
+     *
+     * @return the move count
+     */
+    public long getMoveCount() {
+        return moves;
+    }
+
+    /**
+     * Returns the deepest recursion recorded.
+     *
+     * @return the maximum depth
+     */
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * Returns the total time of each phase, in the order the phases first
+     * ran.
+     *
+     * @return a copy of the map from phase name to nanoseconds
+     */
+    public Map<String, Long> getPhaseNanos() {
+        return new LinkedHashMap<>(phaseNanos);
+    }
+
+    /**
+     * Clears everything recorded so far.
+     */
+    public void reset() {
+        comparisons.reset();
+        moves = 0;
+        depth = 0;
+        maxDepth = 0;
+        phaseNanos.clear();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("comparisons=").append(getComparisonCount())
+                .append(", moves=").append(moves)
+                .append(", maxDepth=").append(maxDepth);
+        for (Map.Entry<String, Long> phase : phaseNanos.entrySet()) {
+            sb.append(", ").append(phase.getKey()).append('=')
+                    .append(phase.getValue() / 1_000_000.0).append("ms");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * A Comparator that counts its calls.
+     *
+     * @param <T> the type compared
+     */
+    private static final class CountingComparator<T> implements Comparator<T> {
+        private final Comparator<T> comparator;
+        private final LongAdder count;
+
+        /**
+         * Wraps a Comparator.
+         * @param comparator the Comparator to count
+         * @param count the counter to add to
+         */
+        CountingComparator(Comparator<T> comparator, LongAdder count) {
+            this.comparator = comparator;
+            this.count = count;
+        }
+
+        @Override
+        public int compare(T a, T b) {
+            count.increment();
+            return comparator.compare(a, b);
+        }
+    }
+}
@@ -1,11 +1,116 @@
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
+import java.util.Deque;
 import java.util.Random;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+import java.util.logging.Logger;
 
 public class Sorting {
 
+    /**
+     * Ranges of at most this many elements are sorted by insertion sort
+     * instead of being split further.
+     */
+    private static final int INSERTION_SORT_THRESHOLD = 32;
+
+    /**
+     * Ranges of at most this many elements are sorted or merged sequentially
+     * by the parallel sorts instead of being forked.
+     */
+    private static final int PARALLEL_THRESHOLD = 1 << 13;
+
+    /**
+     * Number of consecutive wins by one run after which a merge switches to
+     * galloping.
+     */
+    private static final int MIN_GALLOP = 7;
+
+    /**
+     * Number of bits per digit in the byte-wise radix sorts.
+     */
+    private static final int RADIX_BITS = 8;
+
+    /**
+     * Number of buckets per digit in the byte-wise radix sorts.
+     */
+    private static final int RADIX = 1 << RADIX_BITS;
+
+    /**
+     * The longest primitive array sorted by a sorting network.
+     */
+    public static final int NETWORK_MAX_LENGTH = 64;
+
+    /**
+     * Number of positions the sort dispatchers sample.
+     */
+    private static final int SAMPLE_SIZE = 256;
+
+    /**
+     * Average run length, from the estimated number of runs, at or above
+     * which the input is treated as nearly sorted and given to
+     * naturalMergeSort.
+     */
+    private static final int PRESORTED_RUN_LENGTH = 10;
+
+    /**
+     * Fraction of sampled duplicates at or above which Strings are sorted by
+     * introSort instead of an MSD radix sort.
+     */
+    private static final double DUPLICATE_RATIO = 0.5;
+
+    /**
+     * Arrays of at least this many primitives are radix sorted in parallel
+     * when there is more than one processor.
+     */
+    private static final int PARALLEL_RADIX_THRESHOLD = 1 << 20;
+
+    /**
+     * Arrays of at least this many elements are merge sorted in parallel by
+     * sort(T[], Comparator) when there is more than one processor. Below it,
+     * forking the merges costs more than it saves.
+     */
+    private static final int PARALLEL_MERGE_THRESHOLD = 1 << 16;
+
+    /**
+     * Logs the choices of the sort dispatchers at Level.FINE.
+     */
+    private static final Logger LOGGER = Logger.getLogger(Sorting.class.getName());
+
+    /**
+     * NETWORKS[n] holds the comparators of a sorting network for n elements,
+     * as pairs of indexes (i, j) with i < j. Up to 8 elements the networks
+     * are the known optimal ones, with 0, 0, 1, 3, 5, 9, 12, 16 and 19
+     * comparators. Above that they are built with Batcher's merge-exchange.
+     */
+    private static final int[][] NETWORKS = new int[NETWORK_MAX_LENGTH + 1][];
+
+    static {
+        NETWORKS[0] = new int[0];
+        NETWORKS[1] = new int[0];
+        NETWORKS[2] = new int[] {0, 1};
+        NETWORKS[3] = new int[] {0, 2, 0, 1, 1, 2};
+        NETWORKS[4] = new int[] {0, 2, 1, 3, 0, 1, 2, 3, 1, 2};
+        NETWORKS[5] = new int[] {0, 3, 1, 4, 0, 2, 1, 3, 0, 1, 2, 4, 1, 2, 3, 4, 2, 3};
+        NETWORKS[6] = new int[] {0, 5, 1, 3, 2, 4, 1, 2, 3, 4, 0, 3, 2, 5, 0, 1, 2, 3, 4, 5, 1, 2, 3, 4};
+        NETWORKS[7] = new int[] {0, 6, 2, 3, 4, 5, 0, 2, 1, 4, 3, 6, 0, 1, 2, 5, 3, 4, 1, 2, 4, 6, 2, 3,
+            4, 5, 1, 2, 3, 4, 5, 6};
+        NETWORKS[8] = new int[] {0, 2, 1, 3, 4, 6, 5, 7, 0, 4, 1, 5, 2, 6, 3, 7, 0, 1, 2, 3, 4, 5, 6, 7,
+            2, 4, 3, 5, 1, 4, 3, 6, 1, 2, 3, 4, 5, 6};
+        for (int n = 9; n <= NETWORK_MAX_LENGTH; n++) {
+            NETWORKS[n] = mergeExchangeNetwork(n);
+        }
+    }
+
     /**
      * Implement insertion sort.
      *
@@ -33,13 +138,28 @@ public class Sorting {
         if (comparator == null) {
             throw new IllegalArgumentException("Cannot sort with null comparator");
         }
+        comparator = SortStats.counting(comparator);
+
+        insertionSort(arr, 0, arr.length, comparator);
+    }
 
-        for (int i = 1; i < arr.length; i++) {
+    /**
+     * Insertion sort on the range [lo, hi) of the array.
+     *
+     * @param arr the array to sort
+     * @param lo the first index, inclusive
+     * @param hi the last index, exclusive
+     * @param comparator the Comparator used to compare the data in arr
+     * @param <T> data type to sort
+     */
+    private static <T> void insertionSort(T[] arr, int lo, int hi, Comparator<T> comparator) {
+        for (int i = lo + 1; i < hi; i++) {
             int n = i;
-            while ((n > 0) && comparator.compare(arr[n - 1], arr[n]) > 0) {
+            while ((n > lo) && comparator.compare(arr[n - 1], arr[n]) > 0) {
                 T temp = arr[n - 1];
                 arr[n - 1] = arr[n];
                 arr[n] = temp;
+                SortStats.moves(2);
                 n--;
             }
         }
@@ -75,6 +195,7 @@ public class Sorting {
         if (comparator == null) {
             throw new IllegalArgumentException("Cannot sort with null comparator");
         }
+        comparator = SortStats.counting(comparator);
         int start = 0;
         int end = arr.length - 1;
         int swappedIndex;
@@ -86,6 +207,7 @@ public class Sorting {
                     T temp = arr[i];
                     arr[i] = arr[i + 1];
                     arr[i + 1] = temp;
+                    SortStats.moves(2);
                     swappedIndex = i;
                 }
             }
@@ -95,6 +217,7 @@ public class Sorting {
                     T temp = arr[i - 1];
                     arr[i - 1] = arr[i];
                     arr[i] = temp;
+                    SortStats.moves(2);
                     swappedIndex = i;
                 }
             }
@@ -135,6 +258,7 @@ public class Sorting {
         if (comparator == null) {
             throw new IllegalArgumentException("Cannot sort with null comparator");
         }
+        comparator = SortStats.counting(comparator);
 
         int length = arr.length;
         int mid = arr.length / 2;
@@ -147,9 +271,12 @@ public class Sorting {
         for (int i = 0; i < rightArr.length; i++) {
             rightArr[i] = arr[i + mid];
         }
+        SortStats.moves(2L * length);
         if (arr.length > 1) {
+            SortStats.enter();
             mergeSort(leftArr, comparator);
             mergeSort(rightArr, comparator);
+            SortStats.exit();
         }
 
         int leftIdx = 0;
@@ -178,108 +305,96 @@ public class Sorting {
     }
 
     /**
-     * Implement quick sort.
-     *
-     * Use the provided random object to select your pivots. For example if you
-     * need a pivot between a (inclusive) and b (exclusive) where b > a, use
-     * the following code:
-     *
-     * int pivotIndex = rand.nextInt(b - a) + a;
-     *
-     * If your recursion uses an inclusive b instead of an exclusive one,
-     * the formula changes by adding 1 to the nextInt() call:
-     *
-     * int pivotIndex = rand.nextInt(b - a + 1) + a;
+     * Merge sort that reuses a caller-supplied buffer instead of allocating.
      *
      * It should be:
-     * in-place
-     * unstable
-     * not adaptive
+     * out-of-place
+     * stable
+     * adaptive
      *
      * Have a worst case running time of:
-     * O(n^2)
+     * O(n log n)
      *
      * And a best case running time of:
-     * O(n log n)
+     * O(n)
      *
-     * Make sure you code the algorithm as you have been taught it in class.
-     * There are several versions of this algorithm and you may not receive
-     * credit if you do not use the one we have taught you!
+     * Unlike mergeSort, which allocates two new arrays at every level, this
+     * allocates nothing: arr and buffer swap the roles of source and
+     * destination at every level of the recursion, so each level merges
+     * straight into the other array and nothing is copied back. Input that
+     * is already sorted is detected by one scan and left alone, which is the
+     * O(n) best case. Otherwise two halves that are already in order are
+     * copied instead of merged. That saves the comparisons of the merge but
+     * not its moves, so any unsorted input still costs O(n log n) moves.
+     * Ranges of at most INSERTION_SORT_THRESHOLD elements are sorted by
+     * insertion sort.
+     *
+     * The same buffer can be passed to any number of calls, as long as each
+     * call has it to itself. The result is identical to mergeSort.
      *
      * @param <T>        data type to sort
-     * @param arr        the array that must be sorted after the method runs
+     * @param arr        the array to be sorted
      * @param comparator the Comparator used to compare the data in arr
-     * @param rand       the Random object used to select pivots
-     * @throws java.lang.IllegalArgumentException if the array or comparator or
-     *                                            rand is null
+     * @param buffer     scratch space at least as long as arr; its contents
+     *                   are overwritten
+     * @throws java.lang.IllegalArgumentException if the array, comparator or
+     *                                            buffer is null, or if the
+     *                                            buffer is shorter than arr
      */
-    public static <T> void quickSort(T[] arr, Comparator<T> comparator,
-                                     Random rand) {
+    public static <T> void mergeSort(T[] arr, Comparator<T> comparator, T[] buffer) {
         if (arr == null) {
             throw new IllegalArgumentException("Cannot sort null array");
         }
         if (comparator == null) {
             throw new IllegalArgumentException("Cannot sort with null comparator");
         }
-        if (rand == null) {
-            throw new IllegalArgumentException("Cannot sort with null rand");
+        if (buffer == null || buffer.length < arr.length) {
+            throw new IllegalArgumentException("Buffer must be at least as long as the array");
         }
-        quickSortHelper(arr, 0, arr.length - 1, comparator, rand);
+        comparator = SortStats.counting(comparator);
+        int sorted = 1;
+        while (sorted < arr.length && comparator.compare(arr[sorted - 1], arr[sorted]) <= 0) {
+            sorted++;
+        }
+        if (sorted >= arr.length) {
+            return;
+        }
+        System.arraycopy(arr, 0, buffer, 0, arr.length);
+        SortStats.moves(arr.length);
+        mergeSortInto(buffer, arr, 0, arr.length, comparator);
     }
 
     /**
+     * Sorts src[lo, hi) into dst[lo, hi). Both arrays must hold the same data
+     * in that range on entry; src is used as scratch space.
      *
-     * @param arr the array that is sorted after the method runs
-     * @param left the left index
-     * @param right the right index
-     * @param comparator the Comparator that is used to compare the data
-     * @param rand the Random object that is used to select pivot
-     * @param <T> data type to be sorted
+     * @param src the scratch array
+     * @param dst the array to hold the sorted range
+     * @param lo the first index, inclusive
+     * @param hi the last index, exclusive
+     * @param comparator the Comparator used to compare the data
+     * @param <T> data type to sort
      */
-    private static <T> void quickSortHelper(T[] arr, int left, int right, Comparator<T> comparator, Random rand) {
-        if (right - left < 1) {
+    private static <T> void mergeSortInto(T[] src, T[] dst, int lo, int hi, Comparator<T> comparator) {
+        if (hi - lo <= INSERTION_SORT_THRESHOLD) {
+            insertionSort(dst, lo, hi, comparator);
             return;
         }
-
-        int pivotIdx = rand.nextInt(right - left + 1) + left;
-        T pivot = arr[pivotIdx];
-        T temp = arr[left];
-        arr[left] = arr[pivotIdx];
-        arr[pivotIdx] = temp;
-
-        int i = left + 1;
-        int j = right;
-        while (i <= j) {
-            while (i <= j && comparator.compare(pivot, arr[i]) >= 0) {
-                i++;
-            }
-            while (i <= j && comparator.compare(pivot, arr[j]) <= 0) {
-                j--;
-            }
-            if (i <= j) {
-                T temp2 = arr[i];
-                arr[i] = arr[j];
-                arr[j] = temp2;
-                i++;
-                j--;
-            }
+        int mid = (lo + hi) >>> 1;
+        SortStats.enter();
+        mergeSortInto(dst, src, lo, mid, comparator);
+        mergeSortInto(dst, src, mid, hi, comparator);
+        SortStats.exit();
+        if (comparator.compare(src[mid - 1], src[mid]) <= 0) {
+            System.arraycopy(src, lo, dst, lo, hi - lo);
+            SortStats.moves(hi - lo);
+        } else {
+            merge(src, lo, mid, mid, hi, dst, lo, comparator);
         }
-        T temp3 = arr[left];
-        arr[left] = arr[j];
-        arr[j] = temp3;
-        quickSortHelper(arr, left, j - 1, comparator, rand);
-        quickSortHelper(arr, j + 1, right, comparator, rand);
     }
 
     /**
-     * Implement LSD (least significant digit) radix sort.
-     *
-     * Make sure you code the algorithm as you have been taught it in class.
-     * There are several versions of this algorithm and you may not get full
-     * credit if you do not implement the one we have taught you!
-     *
-     * Remember you CANNOT convert the ints to strings at any point in your
-     * code! Doing so may result in a 0 for the implementation.
+     * Parallel merge sort on a ForkJoinPool.
      *
      * It should be:
      * out-of-place
@@ -287,111 +402,3342 @@ public class Sorting {
      * not adaptive
      *
      * Have a worst case running time of:
-     * O(kn)
+     * O(n log n) work, O(log^3 n) span
      *
      * And a best case running time of:
-     * O(kn)
+     * O(n log n) work
      *
-     * You are allowed to make an initial O(n) passthrough of the array to
-     * determine the number of iterations you need. The number of iterations
-     * can be determined using the number with the largest magnitude.
+     * One auxiliary array is allocated up front. Each level of the recursion
+     * merges from one array into the other, so no data is copied back between
+     * levels. Both halves of a range are sorted in parallel, and a large merge
+     * is itself split in two by binary search so it can run in parallel too.
+     * Ranges of at most INSERTION_SORT_THRESHOLD elements are sorted by
+     * insertion sort.
      *
-     * At no point should you find yourself needing a way to exponentiate a
-     * number; any such method would be non-O(1). Think about how how you can
-     * get each power of BASE naturally and efficiently as the algorithm
-     * progresses through each digit.
+     * Because the sort is stable, the result is identical to mergeSort.
      *
-     * Refer to the PDF for more information on LSD Radix Sort.
+     * @param <T>         data type to sort
+     * @param arr         the array to be sorted
+     * @param comparator  the Comparator used to compare the data in arr
+     * @param parallelism the number of worker threads to use
+     * @throws java.lang.IllegalArgumentException if the array or comparator is
+     *                                            null, or if parallelism is
+     *                                            less than 1
+     */
+    public static <T> void parallelMergeSort(T[] arr, Comparator<T> comparator, int parallelism) {
+        if (arr == null) {
+            throw new IllegalArgumentException("Cannot sort null array");
+        }
+        if (comparator == null) {
+            throw new IllegalArgumentException("Cannot sort with null comparator");
+        }
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1");
+        }
+        comparator = SortStats.counting(comparator);
+        if (arr.length < 2) {
+            return;
+        }
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            parallelMergeSort(arr, comparator, pool);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Helper method for parallelMergeSort. Runs the sort on the given pool,
+     * so the sort dispatcher can use the common pool instead of starting
+     * threads on every call.
      *
-     * You may use ArrayList or LinkedList if you wish, but it may only be
-     * used inside radix sort and any radix sort helpers. Do NOT use these
-     * classes with other sorts. However, be sure the List implementation you
-     * choose allows for stability while being as efficient as possible.
+     * @param arr the array to be sorted
+     * @param comparator the Comparator used to compare the data in arr
+     * @param pool the pool to run the tasks on
+     * @param <T> data type to sort
+     */
+    private static <T> void parallelMergeSort(T[] arr, Comparator<T> comparator, ForkJoinPool pool) {
+        T[] aux = arr.clone();
+        long start = SortStats.startPhase();
+        try {
+            pool.invoke(new MergeSortTask<>(aux, arr, 0, arr.length, comparator));
+        } finally {
+            SortStats.endPhase("parallel merge", start);
+        }
+    }
+
+    /**
+     * Sorts src[lo, hi) into dst[lo, hi). Both arrays must hold the same
+     * data in that range when the task starts; src is used as scratch space.
      *
-     * Do NOT use anything from the Math class except Math.abs().
+     * @param <T> data type to sort
+     */
+    private static final class MergeSortTask<T> extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final T[] src;
+        private final T[] dst;
+        private final int lo;
+        private final int hi;
+        private final Comparator<T> comparator;
+
+        /**
+         * Constructs the task.
+         * @param src the scratch array
+         * @param dst the array to hold the sorted range
+         * @param lo the first index, inclusive
+         * @param hi the last index, exclusive
+         * @param comparator the Comparator used to compare the data
+         */
+        MergeSortTask(T[] src, T[] dst, int lo, int hi, Comparator<T> comparator) {
+            this.src = src;
+            this.dst = dst;
+            this.lo = lo;
+            this.hi = hi;
+            this.comparator = comparator;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo <= PARALLEL_THRESHOLD) {
+                mergeSortInto(src, dst, lo, hi, comparator);
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            invokeAll(new MergeSortTask<>(dst, src, lo, mid, comparator),
+                    new MergeSortTask<>(dst, src, mid, hi, comparator));
+            if (comparator.compare(src[mid - 1], src[mid]) <= 0) {
+                System.arraycopy(src, lo, dst, lo, hi - lo);
+            } else {
+                new MergeTask<>(src, lo, mid, mid, hi, dst, lo, comparator).compute();
+            }
+        }
+    }
+
+    /**
+     * Stably merges the sorted runs src[lo1, hi1) and src[lo2, hi2) into dst
+     * starting at out. Large merges pick the middle of the longer run, find
+     * its stable position in the shorter run by binary search, and merge the
+     * two resulting halves in parallel.
      *
-     * @param arr the array to be sorted
-     * @throws java.lang.IllegalArgumentException if the array is null
+     * @param <T> data type to merge
      */
-    public static void lsdRadixSort(int[] arr) {
-        if (arr == null) {
-            throw new IllegalArgumentException("The array is null");
+    private static final class MergeTask<T> extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final T[] src;
+        private final int lo1;
+        private final int hi1;
+        private final int lo2;
+        private final int hi2;
+        private final T[] dst;
+        private final int out;
+        private final Comparator<T> comparator;
+
+        /**
+         * Constructs the task.
+         * @param src the array holding both runs
+         * @param lo1 the start of the left run, inclusive
+         * @param hi1 the end of the left run, exclusive
+         * @param lo2 the start of the right run, inclusive
+         * @param hi2 the end of the right run, exclusive
+         * @param dst the array to merge into
+         * @param out the first index to write in dst
+         * @param comparator the Comparator used to compare the data
+         */
+        MergeTask(T[] src, int lo1, int hi1, int lo2, int hi2, T[] dst, int out, Comparator<T> comparator) {
+            this.src = src;
+            this.lo1 = lo1;
+            this.hi1 = hi1;
+            this.lo2 = lo2;
+            this.hi2 = hi2;
+            this.dst = dst;
+            this.out = out;
+            this.comparator = comparator;
         }
 
-        LinkedList<Integer>[] bucket = (LinkedList<Integer>[]) new LinkedList[19];
+        @Override
+        protected void compute() {
+            int len1 = hi1 - lo1;
+            int len2 = hi2 - lo2;
+            if (len1 + len2 <= PARALLEL_THRESHOLD || len1 == 0 || len2 == 0) {
+                merge(src, lo1, hi1, lo2, hi2, dst, out, comparator);
+                return;
+            }
+            int split1;
+            int split2;
+            if (len1 >= len2) {
+                split1 = (lo1 + hi1) >>> 1;
+                split2 = lowerBound(src, lo2, hi2, src[split1], comparator);
+            } else {
+                split2 = (lo2 + hi2) >>> 1;
+                split1 = upperBound(src, lo1, hi1, src[split2], comparator);
+            }
+            int outMid = out + (split1 - lo1) + (split2 - lo2);
+            invokeAll(new MergeTask<>(src, lo1, split1, lo2, split2, dst, out, comparator),
+                    new MergeTask<>(src, split1, hi1, split2, hi2, dst, outMid, comparator));
+        }
+    }
 
-        for (int i = 0; i < 19; i++) {
-            bucket[i] = new LinkedList<>();
+    /**
+     * Stably merges the sorted runs src[lo1, hi1) and src[lo2, hi2) into dst
+     * starting at out. On ties, the element of the first run goes first.
+     *
+     * @param src the array holding both runs
+     * @param lo1 the start of the first run, inclusive
+     * @param hi1 the end of the first run, exclusive
+     * @param lo2 the start of the second run, inclusive
+     * @param hi2 the end of the second run, exclusive
+     * @param dst the array to merge into
+     * @param out the first index to write in dst
+     * @param comparator the Comparator used to compare the data
+     * @param <T> data type to merge
+     */
+    private static <T> void merge(T[] src, int lo1, int hi1, int lo2, int hi2, T[] dst, int out,
+                                  Comparator<T> comparator) {
+        SortStats.moves((hi1 - lo1) + (hi2 - lo2));
+        while (lo1 < hi1 && lo2 < hi2) {
+            if (comparator.compare(src[lo1], src[lo2]) <= 0) {
+                dst[out++] = src[lo1++];
+            } else {
+                dst[out++] = src[lo2++];
+            }
         }
+        System.arraycopy(src, lo1, dst, out, hi1 - lo1);
+        System.arraycopy(src, lo2, dst, out + (hi1 - lo1), hi2 - lo2);
+    }
 
-        int mod = 10;
-        int divNum = 1;
-        boolean cnt = true;
-        while (cnt) {
-            cnt = false;
-            for (int integer: arr) {
-                int num = integer / divNum;
-                if (num / 10 != 0) {
-                    cnt = true;
-                }
-                if (bucket[num % mod + 9] == null) {
-                    bucket[num % mod + 9] = new LinkedList<>();
-                }
-                bucket[num % mod + 9].add(integer);
+    /**
+     * Returns the first index in the sorted range [lo, hi) whose element is
+     * not less than key.
+     *
+     * @param arr the array to search
+     * @param lo the first index, inclusive
+     * @param hi the last index, exclusive
+     * @param key the key to search for
+     * @param comparator the Comparator used to compare the data
+     * @param <T> data type to search
+     * @return the insertion point before any elements equal to key
+     */
+    private static <T> int lowerBound(T[] arr, int lo, int hi, T key, Comparator<T> comparator) {
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (comparator.compare(arr[mid], key) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
             }
-            int idx = 0;
-            for (int i = 0; i < bucket.length; i++) {
-                if (!bucket[i].isEmpty()) {
-                    for (int j : bucket[i]) {
-                        arr[idx] = j;
-                        idx++;
-                    }
-                    bucket[i].clear();
-                }
+        }
+        return lo;
+    }
+
+    /**
+     * Returns the first index in the sorted range [lo, hi) whose element is
+     * greater than key.
+     *
+     * @param arr the array to search
+     * @param lo the first index, inclusive
+     * @param hi the last index, exclusive
+     * @param key the key to search for
+     * @param comparator the Comparator used to compare the data
+     * @param <T> data type to search
+     * @return the insertion point after any elements equal to key
+     */
+    private static <T> int upperBound(T[] arr, int lo, int hi, T key, Comparator<T> comparator) {
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (comparator.compare(arr[mid], key) <= 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
             }
-            divNum *= 10;
         }
+        return lo;
     }
 
     /**
-     * Implement heap sort.
+     * Adaptive natural merge sort in the style of TimSort.
      *
      * It should be:
      * out-of-place
-     * unstable
-     * not adaptive
+     * stable
+     * adaptive
      *
      * Have a worst case running time of:
      * O(n log n)
      *
      * And a best case running time of:
-     * O(n log n)
-     *
-     * Use java.util.PriorityQueue as the heap. Note that in this
-     * PriorityQueue implementation, elements are removed from smallest
-     * element to largest element.
+     * O(n)
      *
-     * Initialize the PriorityQueue using its build heap constructor (look at
-     * the different constructors of java.util.PriorityQueue).
+     * The array is scanned for runs that are already ascending, or strictly
+     * descending (which are reversed in place). Runs shorter than a minimum
+     * length between 16 and 64 are extended to it with insertion sort.
+     * Runs are pushed on a stack and merged so that their lengths stay
+     * roughly balanced. Each merge first skips the elements that are already
+     * in place by galloping (exponential search) at both ends. It then copies
+     * only the shorter run aside. If one run wins MIN_GALLOP comparisons in a
+     * row, the merge gallops again to move a whole block at once. Sorted or
+     * nearly sorted input therefore runs in close to O(n) time, and at most
+     * n / 2 extra space is used.
      *
-     * Return an int array with a capacity equal to the size of the list. The
-     * returned array should have the elements in the list in sorted order.
+     * The result is identical to mergeSort.
      *
-     * @param data the data to sort
-     * @return the array with length equal to the size of the input list that
-     * holds the elements from the list is sorted order
-     * @throws java.lang.IllegalArgumentException if the data is null
-     */
+     * @param <T>        data type to sort
+     * @param arr        the array to be sorted
+     * @param comparator the Comparator used to compare the data in arr
+     * @throws java.lang.IllegalArgumentException if the array or comparator is
+     *                                            null
+     */
+    public static <T> void naturalMergeSort(T[] arr, Comparator<T> comparator) {
+        if (arr == null) {
+            throw new IllegalArgumentException("Cannot sort null array");
+        }
+        if (comparator == null) {
+            throw new IllegalArgumentException("Cannot sort with null comparator");
+        }
+        comparator = SortStats.counting(comparator);
+        int length = arr.length;
+        if (length < 2) {
+            return;
+        }
+        int minRun = minRunLength(length);
+        RunMerger<T> merger = new RunMerger<>(arr, comparator);
+        int lo = 0;
+        while (lo < length) {
+            int runLen = makeAscendingRun(arr, lo, length, comparator);
+            if (runLen < minRun) {
+                int force = Math.min(minRun, length - lo);
+                insertionSort(arr, lo, lo + force, comparator);
+                runLen = force;
+            }
+            merger.pushRun(lo, runLen);
+            merger.mergeCollapse();
+            lo += runLen;
+        }
+        merger.mergeForceCollapse();
+    }
+
+    /**
+     * Returns the minimum run length for an array of the given length: the
+     * whole length below 64, otherwise a value between 32 and 64 such that
+     * length / minRun is close to, but not more than, a power of two.
+     *
+     * @param length the length of the array
+     * @return the minimum run length
+     */
+    private static int minRunLength(int length) {
+        int r = 0;
+        while (length >= 64) {
+            r |= length & 1;
+            length >>= 1;
+        }
+        return length + r;
+    }
+
+    /**
+     * Finds the run starting at lo. A strictly descending run is reversed so
+     * that equal elements are never reordered.
+     *
+     * @param arr the array to scan
+     * @param lo the start of the run
+     * @param hi the end of the array, exclusive
+     * @param comparator the Comparator used to compare the data
+     * @param <T> data type to sort
+     * @return the length of the run, now ascending
+     */
+    private static <T> int makeAscendingRun(T[] arr, int lo, int hi, Comparator<T> comparator) {
+        int runHi = lo + 1;
+        if (runHi == hi) {
+            return 1;
+        }
+        if (comparator.compare(arr[runHi], arr[lo]) < 0) {
+            runHi++;
+            while (runHi < hi && comparator.compare(arr[runHi], arr[runHi - 1]) < 0) {
+                runHi++;
+            }
+            for (int i = lo, j = runHi - 1; i < j; i++, j--) {
+                T temp = arr[i];
+                arr[i] = arr[j];
+                arr[j] = temp;
+            }
+            SortStats.moves(runHi - lo);
+        } else {
+            runHi++;
+            while (runHi < hi && comparator.compare(arr[runHi], arr[runHi - 1]) >= 0) {
+                runHi++;
+            }
+        }
+        return runHi - lo;
+    }
+
+    /**
+     * Searches the sorted range [lo, hi) by galloping from one end, which
+     * takes O(log k) comparisons when the answer is k elements from that end.
+     *
+     * @param key the key to search for
+     * @param arr the array to search
+     * @param lo the first index, inclusive
+     * @param hi the last index, exclusive
+     * @param upper false for the first element not less than key, true for
+     *              the first element greater than key
+     * @param fromEnd whether to start galloping from hi instead of lo
+     * @param comparator the Comparator used to compare the data
+     * @param <T> data type to search
+     * @return the insertion point of key
+     */
+    private static <T> int gallop(T key, T[] arr, int lo, int hi, boolean upper, boolean fromEnd,
+                                  Comparator<T> comparator) {
+        int length = hi - lo;
+        int prev = 0;
+        int ofs = 1;
+        if (!fromEnd) {
+            while (ofs <= length && before(arr[lo + ofs - 1], key, upper, comparator)) {
+                prev = ofs;
+                ofs = (ofs << 1) + 1;
+            }
+            hi = lo + Math.min(ofs, length);
+            lo = lo + prev;
+        } else {
+            while (ofs <= length && !before(arr[hi - ofs], key, upper, comparator)) {
+                prev = ofs;
+                ofs = (ofs << 1) + 1;
+            }
+            lo = hi - Math.min(ofs, length);
+            hi = hi - prev;
+        }
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (before(arr[mid], key, upper, comparator)) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Returns whether element belongs before the insertion point of key.
+     *
+     * @param element the element in the array
+     * @param key the key being searched for
+     * @param upper whether elements equal to key also belong before it
+     * @param comparator the Comparator used to compare the data
+     * @param <T> data type to compare
+     * @return true if element comes before the insertion point
+     */
+    private static <T> boolean before(T element, T key, boolean upper, Comparator<T> comparator) {
+        int cmp = comparator.compare(element, key);
+        return upper ? cmp <= 0 : cmp < 0;
+    }
+
+    /**
+     * The run stack and merge buffer of naturalMergeSort.
+     *
+     * @param <T> data type to sort
+     */
+    private static final class RunMerger<T> {
+        private final T[] arr;
+        private final Comparator<T> comparator;
+        private final int[] runBase = new int[50];
+        private final int[] runLen = new int[50];
+        private int stackSize;
+        private T[] tmp;
+
+        /**
+         * Constructs the merger.
+         * @param arr the array being sorted
+         * @param comparator the Comparator used to compare the data
+         */
+        RunMerger(T[] arr, Comparator<T> comparator) {
+            this.arr = arr;
+            this.comparator = comparator;
+        }
+
+        /**
+         * Pushes a run on the stack.
+         * @param base the start of the run
+         * @param len the length of the run
+         */
+        void pushRun(int base, int len) {
+            runBase[stackSize] = base;
+            runLen[stackSize] = len;
+            stackSize++;
+            SortStats.depth(stackSize);
+        }
+
+        /**
+         * Merges runs until, for the top runs X, Y, Z, W (W on top), both
+         * len(Y) > len(Z) + len(W) and len(X) > len(Y) + len(Z) hold, and
+         * len(Z) > len(W). This keeps the stack O(log n) deep and the merges
+         * balanced.
+         */
+        void mergeCollapse() {
+            while (stackSize > 1) {
+                int n = stackSize - 2;
+                if ((n > 0 && runLen[n - 1] <= runLen[n] + runLen[n + 1])
+                        || (n > 1 && runLen[n - 2] <= runLen[n - 1] + runLen[n])) {
+                    if (runLen[n - 1] < runLen[n + 1]) {
+                        n--;
+                    }
+                } else if (runLen[n] > runLen[n + 1]) {
+                    break;
+                }
+                mergeAt(n);
+            }
+        }
+
+        /**
+         * Merges all remaining runs into one.
+         */
+        void mergeForceCollapse() {
+            while (stackSize > 1) {
+                int n = stackSize - 2;
+                if (n > 0 && runLen[n - 1] < runLen[n + 1]) {
+                    n--;
+                }
+                mergeAt(n);
+            }
+        }
+
+        /**
+         * Merges the runs at stack positions i and i + 1.
+         * @param i the stack position of the left run
+         */
+        private void mergeAt(int i) {
+            int base1 = runBase[i];
+            int len1 = runLen[i];
+            int base2 = runBase[i + 1];
+            int len2 = runLen[i + 1];
+            runLen[i] = len1 + len2;
+            if (i == stackSize - 3) {
+                runBase[i + 1] = runBase[i + 2];
+                runLen[i + 1] = runLen[i + 2];
+            }
+            stackSize--;
+
+            int skip = gallop(arr[base2], arr, base1, base1 + len1, true, false, comparator) - base1;
+            base1 += skip;
+            len1 -= skip;
+            if (len1 == 0) {
+                return;
+            }
+            len2 = gallop(arr[base1 + len1 - 1], arr, base2, base2 + len2, false, true, comparator) - base2;
+            if (len2 == 0) {
+                return;
+            }
+            if (len1 <= len2) {
+                mergeLo(base1, len1, base2, len2);
+            } else {
+                mergeHi(base1, len1, base2, len2);
+            }
+        }
+
+        /**
+         * Returns the merge buffer, grown to at least the given length.
+         * @param length the needed length
+         * @return the merge buffer
+         */
+        @SuppressWarnings("unchecked")
+        private T[] ensureCapacity(int length) {
+            if (tmp == null || tmp.length < length) {
+                tmp = (T[]) new Object[Math.max(length, tmp == null ? 0 : tmp.length * 2)];
+            }
+            return tmp;
+        }
+
+        /**
+         * Merges two adjacent runs front to back, with the shorter left run
+         * copied aside.
+         * @param base1 the start of the left run
+         * @param len1 the length of the left run
+         * @param base2 the start of the right run
+         * @param len2 the length of the right run
+         */
+        private void mergeLo(int base1, int len1, int base2, int len2) {
+            T[] left = ensureCapacity(len1);
+            System.arraycopy(arr, base1, left, 0, len1);
+            SortStats.moves(2L * len1 + len2);
+            int cursor1 = 0;
+            int cursor2 = base2;
+            int end2 = base2 + len2;
+            int dest = base1;
+            int count1 = 0;
+            int count2 = 0;
+            while (cursor1 < len1 && cursor2 < end2) {
+                if (comparator.compare(arr[cursor2], left[cursor1]) < 0) {
+                    arr[dest++] = arr[cursor2++];
+                    count2++;
+                    count1 = 0;
+                } else {
+                    arr[dest++] = left[cursor1++];
+                    count1++;
+                    count2 = 0;
+                }
+                if (count1 >= MIN_GALLOP && cursor2 < end2) {
+                    int run = gallop(arr[cursor2], left, cursor1, len1, true, false, comparator) - cursor1;
+                    System.arraycopy(left, cursor1, arr, dest, run);
+                    cursor1 += run;
+                    dest += run;
+                    count1 = 0;
+                } else if (count2 >= MIN_GALLOP && cursor1 < len1) {
+                    int run = gallop(left[cursor1], arr, cursor2, end2, false, false, comparator) - cursor2;
+                    System.arraycopy(arr, cursor2, arr, dest, run);
+                    cursor2 += run;
+                    dest += run;
+                    count2 = 0;
+                }
+            }
+            System.arraycopy(left, cursor1, arr, dest, len1 - cursor1);
+        }
+
+        /**
+         * Merges two adjacent runs back to front, with the shorter right run
+         * copied aside.
+         * @param base1 the start of the left run
+         * @param len1 the length of the left run
+         * @param base2 the start of the right run
+         * @param len2 the length of the right run
+         */
+        private void mergeHi(int base1, int len1, int base2, int len2) {
+            T[] right = ensureCapacity(len2);
+            System.arraycopy(arr, base2, right, 0, len2);
+            SortStats.moves(len1 + 2L * len2);
+            int cursor1 = base1 + len1 - 1;
+            int cursor2 = len2 - 1;
+            int dest = base2 + len2 - 1;
+            int count1 = 0;
+            int count2 = 0;
+            while (cursor1 >= base1 && cursor2 >= 0) {
+                if (comparator.compare(right[cursor2], arr[cursor1]) < 0) {
+                    arr[dest--] = arr[cursor1--];
+                    count1++;
+                    count2 = 0;
+                } else {
+                    arr[dest--] = right[cursor2--];
+                    count2++;
+                    count1 = 0;
+                }
+                if (count1 >= MIN_GALLOP && cursor2 >= 0) {
+                    int start = gallop(right[cursor2], arr, base1, cursor1 + 1, true, true, comparator);
+                    int run = cursor1 + 1 - start;
+                    System.arraycopy(arr, start, arr, dest - run + 1, run);
+                    cursor1 -= run;
+                    dest -= run;
+                    count1 = 0;
+                } else if (count2 >= MIN_GALLOP && cursor1 >= base1) {
+                    int start = gallop(arr[cursor1], right, 0, cursor2 + 1, false, true, comparator);
+                    int run = cursor2 + 1 - start;
+                    System.arraycopy(right, start, arr, dest - run + 1, run);
+                    cursor2 -= run;
+                    dest -= run;
+                    count2 = 0;
+                }
+            }
+            System.arraycopy(right, 0, arr, base1, cursor2 + 1);
+        }
+    }
+
+    /**
+     * Implement quick sort.
+     *
+     * Use the provided random object to select your pivots. For example if you
+     * need a pivot between a (inclusive) and b (exclusive) where b > a, use
+     * the following code:
+     *
+     * int pivotIndex = rand.nextInt(b - a) + a;
+     *
+     * If your recursion uses an inclusive b instead of an exclusive one,
+     * the formula changes by adding 1 to the nextInt() call:
+     *
+     * int pivotIndex = rand.nextInt(b - a + 1) + a;
+     *
+     * It should be:
+     * in-place
+     * unstable
+     * not adaptive
+     *
+     * Have a worst case running time of:
+     * O(n^2)
+     *
+     * And a best case running time of:
+     * O(n log n)
+     *
+     * Make sure you code the algorithm as you have been taught it in class.
+     * There are several versions of this algorithm and you may not receive
+     * credit if you do not use the one we have taught you!
+     *
+     * @param <T>        data type to sort
+     * @param arr        the array that must be sorted after the method runs
+     * @param comparator the Comparator used to compare the data in arr
+     * @param rand       the Random object used to select pivots
+     * @throws java.lang.IllegalArgumentException if the array or comparator or
+     *                                            rand is null
+     */
+    public static <T> void quickSort(T[] arr, Comparator<T> comparator,
+                                     Random rand) {
+        if (arr == null) {
+            throw new IllegalArgumentException("Cannot sort null array");
+        }
+        if (comparator == null) {
+            throw new IllegalArgumentException("Cannot sort with null comparator");
+        }
+        if (rand == null) {
+            throw new IllegalArgumentException("Cannot sort with null rand");
+        }
+        comparator = SortStats.counting(comparator);
+        quickSortHelper(arr, 0, arr.length - 1, comparator, rand);
+    }
+
+    /**
+     *
+     * @param arr the array that is sorted after the method runs
+     * @param left the left index
+     * @param right the right index
+     * @param comparator the Comparator that is used to compare the data
+     * @param rand the Random object that is used to select pivot
+     * @param <T> data type to be sorted
+     */
+    private static <T> void quickSortHelper(T[] arr, int left, int right, Comparator<T> comparator, Random rand) {
+        if (right - left < 1) {
+            return;
+        }
+
+        int pivotIdx = rand.nextInt(right - left + 1) + left;
+        int j = partition(arr, left, right, pivotIdx, comparator);
+        SortStats.enter();
+        quickSortHelper(arr, left, j - 1, comparator, rand);
+        quickSortHelper(arr, j + 1, right, comparator, rand);
+        SortStats.exit();
+    }
+
+    /**
+     * Partitions arr[left, right] around the element at pivotIdx, used by
+     * quickSort and select.
+     *
+     * @param arr the array to partition
+     * @param left the left index, inclusive
+     * @param right the right index, inclusive
+     * @param pivotIdx the index of the pivot
+     * @param comparator the Comparator that is used to compare the data
+     * @param <T> data type to be sorted
+     * @return the final index of the pivot; no element before it is greater
+     * and no element after it is smaller
+     */
+    private static <T> int partition(T[] arr, int left, int right, int pivotIdx, Comparator<T> comparator) {
+        T pivot = arr[pivotIdx];
+        T temp = arr[left];
+        arr[left] = arr[pivotIdx];
+        arr[pivotIdx] = temp;
+        SortStats.moves(2);
+
+        int i = left + 1;
+        int j = right;
+        while (i <= j) {
+            while (i <= j && comparator.compare(pivot, arr[i]) >= 0) {
+                i++;
+            }
+            while (i <= j && comparator.compare(pivot, arr[j]) <= 0) {
+                j--;
+            }
+            if (i <= j) {
+                T temp2 = arr[i];
+                arr[i] = arr[j];
+                arr[j] = temp2;
+                SortStats.moves(2);
+                i++;
+                j--;
+            }
+        }
+        T temp3 = arr[left];
+        arr[left] = arr[j];
+        arr[j] = temp3;
+        SortStats.moves(2);
+        return j;
+    }
+
+    /**
+     * Rearranges the array so that arr[k] is the element that would be there
+     * if the array were sorted, with no greater element before it and no
+     * smaller element after it.
+     *
+     * It should be:
+     * in-place
+     * unstable
+     *
+     * Have a worst case running time of:
+     * O(n)
+     *
+     * Every round splits the range three ways, into elements less than,
+     * equal to and greater than a pivot, and keeps only the part holding
+     * index k. Pivots are first picked at random with rand, as in quickSort.
+     * Every two random rounds must at least halve the range, so together they
+     * cost O(n). As soon as two rounds fail to, the pivot of every further
+     * round is the median of the medians of groups of five, which leaves at
+     * most 70% of the range for the next round. The running time therefore
+     * stays linear even on adversarial input.
+     *
+     * Since the part equal to the pivot is set aside at once, duplicates make
+     * the search shorter, not longer. For example, on an all-equal array the
+     * first round puts every element in the equal part and returns, after
+     * n comparisons. With a few distinct values, every round removes all the
+     * copies of its pivot.
+     *
+     * @param <T>        data type to select from
+     * @param arr        the array to select from
+     * @param k          the index, in sorted order, of the element to select
+     * @param comparator the Comparator used to compare the data in arr
+     * @param rand       the Random object used to select pivots
+     * @return the k-th smallest element, counting from 0
+     * @throws java.lang.IllegalArgumentException if the array or comparator or
+     *                                            rand is null, or if k is not
+     *                                            an index of the array
+     */
+    public static <T> T select(T[] arr, int k, Comparator<T> comparator, Random rand) {
+        if (arr == null) {
+            throw new IllegalArgumentException("Cannot select from null array");
+        }
+        if (comparator == null) {
+            throw new IllegalArgumentException("Cannot select with null comparator");
+        }
+        if (rand == null) {
+            throw new IllegalArgumentException("Cannot select with null rand");
+        }
+        if (k < 0 || k >= arr.length) {
+            throw new IllegalArgumentException("k is not an index of the array");
+        }
+        comparator = SortStats.counting(comparator);
+        selectHelper(arr, 0, arr.length, k, true, comparator, rand);
+        return arr[k];
+    }
+
+    /**
+     * Sorts the k smallest elements into arr[0, k). The order of the rest of
+     * the array is unspecified.
+     *
+     * It should be:
+     * in-place
+     * unstable
+     *
+     * Have a worst case running time of:
+     * O(n + k log k)
+     *
+     * The array is first split around the k-th smallest element with
+     * select, which is linear in the worst case, including on all-equal or
+     * few-distinct input. Then only the first k elements are sorted with
+     * introSort.
+     *
+     * @param <T>        data type to sort
+     * @param arr        the array to partially sort
+     * @param k          the number of smallest elements to sort
+     * @param comparator the Comparator used to compare the data in arr
+     * @param rand       the Random object used to select pivots
+     * @throws java.lang.IllegalArgumentException if the array or comparator or
+     *                                            rand is null, or if k is
+     *                                            negative or greater than the
+     *                                            length of the array
+     */
+    public static <T> void partialSort(T[] arr, int k, Comparator<T> comparator, Random rand) {
+        if (arr == null) {
+            throw new IllegalArgumentException("Cannot sort null array");
+        }
+        if (comparator == null) {
+            throw new IllegalArgumentException("Cannot sort with null comparator");
+        }
+        if (rand == null) {
+            throw new IllegalArgumentException("Cannot sort with null rand");
+        }
+        if (k < 0 || k > arr.length) {
+            throw new IllegalArgumentException("k must be between 0 and the length of the array");
+        }
+        comparator = SortStats.counting(comparator);
+        if (k == 0) {
+            return;
+        }
+        long start = SortStats.startPhase();
+        selectHelper(arr, 0, arr.length, k - 1, true, comparator, rand);
+        SortStats.endPhase("select", start);
+        start = SortStats.startPhase();
+        introSortHelper(arr, 0, k, depthLimit(k), comparator);
+        SortStats.endPhase("sort", start);
+    }
+
+    /**
+     * Returns the k greatest elements of the array, greatest first. The
+     * array is not modified.
+     *
+     * It should be:
+     * out-of-place
+     * unstable
+     *
+     * Have a worst case running time of:
+     * O(n log k)
+     *
+     * The first k elements are put in a min-heap of size k. Every later
+     * element that is greater than the heap's minimum replaces it, so after
+     * one pass the heap holds the k greatest elements. The heap is then
+     * heapsorted in place, with O(k) extra space in total.
+     *
+     * @param <T>        data type to select from
+     * @param arr        the array to select from
+     * @param k          the number of elements to return
+     * @param comparator the Comparator used to compare the data in arr
+     * @return a new array of the k greatest elements, in descending order
+     * @throws java.lang.IllegalArgumentException if the array or comparator is
+     *                                            null, or if k is negative or
+     *                                            greater than the length of the
+     *                                            array
+     */
+    public static <T> T[] topK(T[] arr, int k, Comparator<T> comparator) {
+        if (arr == null) {
+            throw new IllegalArgumentException("Cannot select from null array");
+        }
+        if (comparator == null) {
+            throw new IllegalArgumentException("Cannot select with null comparator");
+        }
+        if (k < 0 || k > arr.length) {
+            throw new IllegalArgumentException("k must be between 0 and the length of the array");
+        }
+        comparator = SortStats.counting(comparator);
+        T[] heap = Arrays.copyOf(arr, k);
+        if (k == 0) {
+            return heap;
+        }
+        Comparator<T> reversed = comparator.reversed();
+        for (int i = k / 2 - 1; i >= 0; i--) {
+            siftDown(heap, 0, i, k, reversed);
+        }
+        for (int i = k; i < arr.length; i++) {
+            if (comparator.compare(arr[i], heap[0]) > 0) {
+                heap[0] = arr[i];
+                SortStats.moves(1);
+                siftDown(heap, 0, 0, k, reversed);
+            }
+        }
+        heapSort(heap, 0, k, reversed);
+        return heap;
+    }
+
+    /**
+     * Helper method for select and partialSort. Narrows [lo, hi) down to
+     * index k.
+     *
+     * @param arr the array to select from
+     * @param lo the first index, inclusive
+     * @param hi the last index, exclusive
+     * @param k the index to select
+     * @param randomPivots whether to start with random pivots; once two
+     *                     random rounds fail to halve the range, or if this
+     *                     is false, median of medians is used
+     * @param comparator the Comparator used to compare the data
+     * @param rand the Random object used to select pivots
+     * @param <T> data type to select from
+     */
+    private static <T> void selectHelper(T[] arr, int lo, int hi, int k, boolean randomPivots,
+                                         Comparator<T> comparator, Random rand) {
+        int rounds = 0;
+        int checkpoint = hi - lo;
+        int sinceCheckpoint = 0;
+        while (hi - lo > INSERTION_SORT_THRESHOLD) {
+            SortStats.depth(++rounds);
+            if (randomPivots && sinceCheckpoint == 2) {
+                if (hi - lo > checkpoint / 2) {
+                    randomPivots = false;
+                } else {
+                    checkpoint = hi - lo;
+                    sinceCheckpoint = 0;
+                }
+            }
+            T pivot = randomPivots
+                    ? arr[rand.nextInt(hi - lo) + lo]
+                    : arr[medianOfMedians(arr, lo, hi, comparator, rand)];
+            int[] equal = threeWayPartition(arr, lo, hi, pivot, comparator);
+            if (k < equal[0]) {
+                hi = equal[0];
+            } else if (k >= equal[1]) {
+                lo = equal[1];
+            } else {
+                return;
+            }
+            sinceCheckpoint++;
+        }
+        insertionSort(arr, lo, hi, comparator);
+    }
+
+    /**
+     * Finds the median of the medians of groups of five in [lo, hi). The
+     * group medians are moved to the front of the range and their median is
+     * found with selectHelper.
+     *
+     * @param arr the array to search
+     * @param lo the first index, inclusive
+     * @param hi the last index, exclusive
+     * @param comparator the Comparator used to compare the data
+     * @param rand the Random object passed on to selectHelper
+     * @param <T> data type to search
+     * @return the index of the median of medians
+     */
+    private static <T> int medianOfMedians(T[] arr, int lo, int hi, Comparator<T> comparator, Random rand) {
+        int medians = lo;
+        for (int group = lo; group < hi; group += 5) {
+            int groupHi = Math.min(group + 5, hi);
+            insertionSort(arr, group, groupHi, comparator);
+            swap(arr, medians++, (group + groupHi - 1) >>> 1);
+        }
+        int mid = (lo + medians - 1) >>> 1;
+        selectHelper(arr, lo, medians, mid, false, comparator, rand);
+        return mid;
+    }
+
+    /**
+     * Partitions [lo, hi) into elements less than, equal to and greater than
+     * pivot, in that order.
+     *
+     * @param arr the array to partition
+     * @param lo the first index, inclusive
+     * @param hi the last index, exclusive
+     * @param pivot the pivot
+     * @param comparator the Comparator used to compare the data
+     * @param <T> data type to partition
+     * @return the first index equal to pivot, and the first index greater
+     * than pivot
+     */
+    private static <T> int[] threeWayPartition(T[] arr, int lo, int hi, T pivot, Comparator<T> comparator) {
+        int lt = lo;
+        int gt = hi - 1;
+        int i = lo;
+        while (i <= gt) {
+            int cmp = comparator.compare(arr[i], pivot);
+            if (cmp < 0) {
+                swap(arr, lt++, i++);
+            } else if (cmp > 0) {
+                swap(arr, i, gt--);
+            } else {
+                i++;
+            }
+        }
+        return new int[] {lt, gt + 1};
+    }
+
+    /**
+     * Introspective sort with dual-pivot partitioning.
+     *
+     * It should be:
+     * in-place
+     * unstable
+     * not adaptive
+     *
+     * Have a worst case running time of:
+     * O(n log n)
+     *
+     * And a best case running time of:
+     * O(n)
+     *
+     * Five evenly spaced elements are sampled per range. If the second and
+     * fourth smallest differ, they become two pivots and the range is split
+     * into parts less than, between and greater than them. If they are equal,
+     * the range is likely full of duplicates. It is then split three ways
+     * around a single pivot, and the part equal to it is never looked at
+     * again, so an all-equal array takes O(n). Ranges of at most
+     * INSERTION_SORT_THRESHOLD elements are finished by insertion sort. Once
+     * the recursion is 2 log n levels deep, the range is heapsorted instead,
+     * so no input can force O(n^2). Pivots are not chosen at random, so the
+     * order of the result is reproducible.
+     *
+     * @param <T>        data type to sort
+     * @param arr        the array that must be sorted after the method runs
+     * @param comparator the Comparator used to compare the data in arr
+     * @throws java.lang.IllegalArgumentException if the array or comparator is
+     *                                            null
+     */
+    public static <T> void introSort(T[] arr, Comparator<T> comparator) {
+        if (arr == null) {
+            throw new IllegalArgumentException("Cannot sort null array");
+        }
+        if (comparator == null) {
+            throw new IllegalArgumentException("Cannot sort with null comparator");
+        }
+        comparator = SortStats.counting(comparator);
+        introSortHelper(arr, 0, arr.length, depthLimit(arr.length), comparator);
+    }
+
+    /**
+     * Returns the recursion depth after which introsort falls back to
+     * heapsort, 2 * floor(log2 n).
+     *
+     * @param length the number of elements to sort
+     * @return the depth limit
+     */
+    private static int depthLimit(int length) {
+        return 2 * (31 - Integer.numberOfLeadingZeros(Math.max(length, 1)));
+    }
+
+    /**
+     * Helper method for introSort. Recurses into the outer parts and loops
+     * on the middle part.
+     *
+     * @param arr the array to sort
+     * @param lo the first index, inclusive
+     * @param hi the last index, exclusive
+     * @param depth the remaining recursion depth before heapsort takes over
+     * @param comparator the Comparator used to compare the data
+     * @param <T> data type to sort
+     */
+    private static <T> void introSortHelper(T[] arr, int lo, int hi, int depth, Comparator<T> comparator) {
+        SortStats.enter();
+        while (hi - lo > INSERTION_SORT_THRESHOLD) {
+            if (depth == 0) {
+                long start = SortStats.startPhase();
+                heapSort(arr, lo, hi, comparator);
+                SortStats.endPhase("heapsort fallback", start);
+                SortStats.exit();
+                return;
+            }
+            depth--;
+
+            int seventh = (hi - lo) / 7;
+            int e3 = (lo + hi - 1) >>> 1;
+            int e2 = e3 - seventh;
+            int e1 = e2 - seventh;
+            int e4 = e3 + seventh;
+            int e5 = e4 + seventh;
+            sortSample(arr, new int[] {e1, e2, e3, e4, e5}, comparator);
+
+            if (comparator.compare(arr[e2], arr[e4]) != 0) {
+                swap(arr, lo, e2);
+                swap(arr, hi - 1, e4);
+                T pivot1 = arr[lo];
+                T pivot2 = arr[hi - 1];
+                int less = lo + 1;
+                int great = hi - 2;
+                for (int k = less; k <= great; k++) {
+                    if (comparator.compare(arr[k], pivot1) < 0) {
+                        swap(arr, k, less++);
+                    } else if (comparator.compare(arr[k], pivot2) > 0) {
+                        while (k < great && comparator.compare(arr[great], pivot2) > 0) {
+                            great--;
+                        }
+                        swap(arr, k, great--);
+                        if (comparator.compare(arr[k], pivot1) < 0) {
+                            swap(arr, k, less++);
+                        }
+                    }
+                }
+                swap(arr, lo, less - 1);
+                swap(arr, hi - 1, great + 1);
+                introSortHelper(arr, lo, less - 1, depth, comparator);
+                introSortHelper(arr, great + 2, hi, depth, comparator);
+                lo = less;
+                hi = great + 1;
+            } else {
+                int[] equal = threeWayPartition(arr, lo, hi, arr[e3], comparator);
+                introSortHelper(arr, lo, equal[0], depth, comparator);
+                lo = equal[1];
+            }
+        }
+        insertionSort(arr, lo, hi, comparator);
+        SortStats.exit();
+    }
+
+    /**
+     * Sorts the elements at the given indexes, which are in increasing
+     * order, by insertion sort.
+     *
+     * @param arr the array holding the sample
+     * @param idx the indexes of the sample
+     * @param comparator the Comparator used to compare the data
+     * @param <T> data type to sort
+     */
+    private static <T> void sortSample(T[] arr, int[] idx, Comparator<T> comparator) {
+        for (int i = 1; i < idx.length; i++) {
+            for (int j = i; j > 0 && comparator.compare(arr[idx[j]], arr[idx[j - 1]]) < 0; j--) {
+                swap(arr, idx[j], idx[j - 1]);
+            }
+        }
+    }
+
+    /**
+     * Heapsorts the range [lo, hi) in place with a binary max-heap.
+     *
+     * @param arr the array to sort
+     * @param lo the first index, inclusive
+     * @param hi the last index, exclusive
+     * @param comparator the Comparator used to compare the data
+     * @param <T> data type to sort
+     */
+    private static <T> void heapSort(T[] arr, int lo, int hi, Comparator<T> comparator) {
+        int n = hi - lo;
+        for (int i = n / 2 - 1; i >= 0; i--) {
+            siftDown(arr, lo, i, n, comparator);
+        }
+        for (int end = n - 1; end > 0; end--) {
+            swap(arr, lo, lo + end);
+            siftDown(arr, lo, 0, end, comparator);
+        }
+    }
+
+    /**
+     * Sifts the element at heap position i down a max-heap stored from
+     * arr[base].
+     *
+     * @param arr the array holding the heap
+     * @param base the index of the root of the heap
+     * @param i the heap position to sift down
+     * @param n the size of the heap
+     * @param comparator the Comparator used to compare the data
+     * @param <T> data type to sort
+     */
+    private static <T> void siftDown(T[] arr, int base, int i, int n, Comparator<T> comparator) {
+        T data = arr[base + i];
+        int child = 2 * i + 1;
+        while (child < n) {
+            if (child + 1 < n && comparator.compare(arr[base + child + 1], arr[base + child]) > 0) {
+                child++;
+            }
+            if (comparator.compare(arr[base + child], data) <= 0) {
+                break;
+            }
+            arr[base + i] = arr[base + child];
+            SortStats.moves(1);
+            i = child;
+            child = 2 * i + 1;
+        }
+        arr[base + i] = data;
+        SortStats.moves(1);
+    }
+
+    /**
+     * Swaps two elements of an array.
+     *
+     * @param arr the array
+     * @param i the first index
+     * @param j the second index
+     * @param <T> data type of the array
+     */
+    private static <T> void swap(T[] arr, int i, int j) {
+        T temp = arr[i];
+        arr[i] = arr[j];
+        arr[j] = temp;
+        SortStats.moves(2);
+    }
+
+    /**
+     * Implement LSD (least significant digit) radix sort.
+     *
+     * Make sure you code the algorithm as you have been taught it in class.
+     * There are several versions of this algorithm and you may not get full
+     * credit if you do not implement the one we have taught you!
+     *
+     * Remember you CANNOT convert the ints to strings at any point in your
+     * code! Doing so may result in a 0 for the implementation.
+     *
+     * It should be:
+     * out-of-place
+     * stable
+     * not adaptive
+     *
+     * Have a worst case running time of:
+     * O(kn)
+     *
+     * And a best case running time of:
+     * O(kn)
+     *
+     * You are allowed to make an initial O(n) passthrough of the array to
+     * determine the number of iterations you need. The number of iterations
+     * can be determined using the number with the largest magnitude.
+     *
+     * At no point should you find yourself needing a way to exponentiate a
+     * number; any such method would be non-O(1). Think about how how you can
+     * get each power of BASE naturally and efficiently as the algorithm
+     * progresses through each digit.
+     *
+     * Refer to the PDF for more information on LSD Radix Sort.
+     *
+     * You may use ArrayList or LinkedList if you wish, but it may only be
+     * used inside radix sort and any radix sort helpers. Do NOT use these
+     * classes with other sorts. However, be sure the List implementation you
+     * choose allows for stability while being as efficient as possible.
+     *
+     * Do NOT use anything from the Math class except Math.abs().
+     *
+     * @param arr the array to be sorted
+     * @throws java.lang.IllegalArgumentException if the array is null
+     */
+    public static void lsdRadixSort(int[] arr) {
+        if (arr == null) {
+            throw new IllegalArgumentException("The array is null");
+        }
+
+        LinkedList<Integer>[] bucket = (LinkedList<Integer>[]) new LinkedList[19];
+
+        for (int i = 0; i < 19; i++) {
+            bucket[i] = new LinkedList<>();
+        }
+
+        int mod = 10;
+        int divNum = 1;
+        boolean cnt = true;
+        while (cnt) {
+            cnt = false;
+            for (int integer: arr) {
+                int num = integer / divNum;
+                if (num / 10 != 0) {
+                    cnt = true;
+                }
+                if (bucket[num % mod + 9] == null) {
+                    bucket[num % mod + 9] = new LinkedList<>();
+                }
+                bucket[num % mod + 9].add(integer);
+            }
+            int idx = 0;
+            for (int i = 0; i < bucket.length; i++) {
+                if (!bucket[i].isEmpty()) {
+                    for (int j : bucket[i]) {
+                        arr[idx] = j;
+                        idx++;
+                    }
+                    bucket[i].clear();
+                }
+            }
+            SortStats.moves(2L * arr.length);
+            divNum *= 10;
+        }
+    }
+
+    /**
+     * Sorts a small int array with a fixed sorting network.
+     *
+     * It should be:
+     * in-place
+     * unstable
+     * not adaptive
+     *
+     * Have a worst case running time of:
+     * O(1) for a fixed length, at most 543 comparators for 64 elements
+     *
+     * And a best case running time of:
+     * the same as the worst case
+     *
+     * A sorting network is a fixed sequence of compare-exchange steps that
+     * sorts any input of its length. The steps do not depend on the data, and
+     * each step is a min and a max, which the JIT compiles without branches.
+     * So unlike insertionSort and cocktailSort, there are no mispredicted
+     * branches to pay for. The LSD radix sorts of every primitive type and
+     * the key-extractor sorts use a network for arrays of at most
+     * NETWORK_MAX_LENGTH elements, since an LSD pass never splits the array
+     * into smaller ranges. The primitive heapsorts stop extracting once
+     * NETWORK_MAX_LENGTH elements are left in the heap and finish them with
+     * a network.
+     *
+     * @param arr the array to be sorted
+     * @throws java.lang.IllegalArgumentException if the array is null or
+     *                                            longer than NETWORK_MAX_LENGTH
+     */
+    public static void networkSort(int[] arr) {
+        if (arr == null) {
+            throw new IllegalArgumentException("The array is null");
+        }
+        if (arr.length > NETWORK_MAX_LENGTH) {
+            throw new IllegalArgumentException("The array is longer than " + NETWORK_MAX_LENGTH);
+        }
+        networkSort(arr, 0, arr.length);
+    }
+
+    /**
+     * Sorts a small long array with a fixed sorting network. Works like
+     * networkSort(int[]).
+     *
+     * It should be:
+     * in-place
+     * unstable
+     * not adaptive
+     *
+     * Have a worst case running time of:
+     * O(1) for a fixed length, at most 543 comparators for 64 elements
+     *
+     * And a best case running time of:
+     * the same as the worst case
+     *
+     * @param arr the array to be sorted
+     * @throws java.lang.IllegalArgumentException if the array is null or
+     *                                            longer than NETWORK_MAX_LENGTH
+     */
+    public static void networkSort(long[] arr) {
+        if (arr == null) {
+            throw new IllegalArgumentException("The array is null");
+        }
+        if (arr.length > NETWORK_MAX_LENGTH) {
+            throw new IllegalArgumentException("The array is longer than " + NETWORK_MAX_LENGTH);
+        }
+        networkSort(arr, 0, arr.length);
+    }
+
+    /**
+     * Sorts the range [lo, hi) of ints, at most NETWORK_MAX_LENGTH long, with
+     * the sorting network for its length.
+     *
+     * @param arr the array to sort
+     * @param lo the first index, inclusive
+     * @param hi the last index, exclusive
+     */
+    private static void networkSort(int[] arr, int lo, int hi) {
+        int[] network = NETWORKS[hi - lo];
+        for (int c = 0; c < network.length; c += 2) {
+            int i = lo + network[c];
+            int j = lo + network[c + 1];
+            int a = arr[i];
+            int b = arr[j];
+            arr[i] = Math.min(a, b);
+            arr[j] = Math.max(a, b);
+        }
+        SortStats.comparisons(network.length / 2);
+        SortStats.moves(network.length);
+    }
+
+    /**
+     * Sorts the range [lo, hi) of longs, at most NETWORK_MAX_LENGTH long,
+     * with the sorting network for its length.
+     *
+     * @param arr the array to sort
+     * @param lo the first index, inclusive
+     * @param hi the last index, exclusive
+     */
+    private static void networkSort(long[] arr, int lo, int hi) {
+        int[] network = NETWORKS[hi - lo];
+        for (int c = 0; c < network.length; c += 2) {
+            int i = lo + network[c];
+            int j = lo + network[c + 1];
+            long a = arr[i];
+            long b = arr[j];
+            arr[i] = Math.min(a, b);
+            arr[j] = Math.max(a, b);
+        }
+        SortStats.comparisons(network.length / 2);
+        SortStats.moves(network.length);
+    }
+
+    /**
+     * Sorts the range [lo, hi) of floats, at most NETWORK_MAX_LENGTH long,
+     * with the sorting network for its length. Each step compares the keys
+     * of radixSort(float[]) and selects without a branch, so the order is
+     * that of Arrays.sort(float[]) and NaNs keep their bits.
+     *
+     * @param arr the array to sort
+     * @param lo the first index, inclusive
+     * @param hi the last index, exclusive
+     */
+    private static void networkSort(float[] arr, int lo, int hi) {
+        int[] network = NETWORKS[hi - lo];
+        for (int c = 0; c < network.length; c += 2) {
+            int i = lo + network[c];
+            int j = lo + network[c + 1];
+            float a = arr[i];
+            float b = arr[j];
+            boolean swap = (floatKey(a) ^ Integer.MIN_VALUE) > (floatKey(b) ^ Integer.MIN_VALUE);
+            arr[i] = swap ? b : a;
+            arr[j] = swap ? a : b;
+        }
+        SortStats.comparisons(network.length / 2);
+        SortStats.moves(network.length);
+    }
+
+    /**
+     * Sorts the range [lo, hi) of doubles, at most NETWORK_MAX_LENGTH long,
+     * with the sorting network for its length. Works like
+     * networkSort(float[], int, int).
+     *
+     * @param arr the array to sort
+     * @param lo the first index, inclusive
+     * @param hi the last index, exclusive
+     */
+    private static void networkSort(double[] arr, int lo, int hi) {
+        int[] network = NETWORKS[hi - lo];
+        for (int c = 0; c < network.length; c += 2) {
+            int i = lo + network[c];
+            int j = lo + network[c + 1];
+            double a = arr[i];
+            double b = arr[j];
+            boolean swap = (doubleKey(a) ^ Long.MIN_VALUE) > (doubleKey(b) ^ Long.MIN_VALUE);
+            arr[i] = swap ? b : a;
+            arr[j] = swap ? a : b;
+        }
+        SortStats.comparisons(network.length / 2);
+        SortStats.moves(network.length);
+    }
+
+    /**
+     * Sorts keys, at most NETWORK_MAX_LENGTH of them, with the sorting
+     * network for their length and moves index along with them. Equal keys
+     * are ordered by their index, which makes the network stable when index
+     * starts out ascending.
+     *
+     * @param keys the keys to sort
+     * @param index the values moved with the keys
+     */
+    private static void networkSortPairs(long[] keys, int[] index) {
+        int[] network = NETWORKS[keys.length];
+        for (int c = 0; c < network.length; c += 2) {
+            int i = network[c];
+            int j = network[c + 1];
+            long a = keys[i];
+            long b = keys[j];
+            int ia = index[i];
+            int ib = index[j];
+            boolean swap = a > b || (a == b && ia > ib);
+            keys[i] = swap ? b : a;
+            keys[j] = swap ? a : b;
+            index[i] = swap ? ib : ia;
+            index[j] = swap ? ia : ib;
+        }
+        SortStats.comparisons(network.length / 2);
+        SortStats.moves(2L * network.length);
+    }
+
+    /**
+     * Builds Batcher's merge-exchange sorting network for n elements
+     * (Knuth, TAOCP vol. 3, algorithm 5.2.2M).
+     *
+     * @param n the number of elements, at least 2
+     * @return the comparators as pairs of indexes
+     */
+    private static int[] mergeExchangeNetwork(int n) {
+        List<Integer> pairs = new ArrayList<>();
+        int t = 32 - Integer.numberOfLeadingZeros(n - 1);
+        for (int p = 1 << (t - 1); p > 0; p >>= 1) {
+            int q = 1 << (t - 1);
+            int r = 0;
+            int d = p;
+            while (true) {
+                for (int i = 0; i < n - d; i++) {
+                    if ((i & p) == r) {
+                        pairs.add(i);
+                        pairs.add(i + d);
+                    }
+                }
+                if (q == p) {
+                    break;
+                }
+                d = q - p;
+                q >>= 1;
+                r = p;
+            }
+        }
+        int[] network = new int[pairs.size()];
+        for (int i = 0; i < network.length; i++) {
+            network[i] = pairs.get(i);
+        }
+        return network;
+    }
+
+    /**
+     * Byte-wise LSD radix sort of ints.
+     *
+     * It should be:
+     * out-of-place
+     * stable
+     * not adaptive
+     *
+     * Have a worst case running time of:
+     * O(n)
+     *
+     * And a best case running time of:
+     * O(n)
+     *
+     * The ints are sorted one byte at a time with counting sort, four passes
+     * at most. The histograms of all four bytes are built in one pass over the
+     * array. A byte that is equal in every key needs no pass and is skipped.
+     * The sign bit is flipped in the keys so that negative numbers come first.
+     * Passes move the data back and forth between arr and one scratch array
+     * of the same length, which is only allocated if a pass is needed.
+     * Arrays of at most NETWORK_MAX_LENGTH elements are sorted by
+     * networkSort instead, since their histograms would cost more than the
+     * sort itself.
+     *
+     * @param arr the array to be sorted
+     * @throws java.lang.IllegalArgumentException if the array is null
+     */
+    public static void radixSort(int[] arr) {
+        if (arr == null) {
+            throw new IllegalArgumentException("The array is null");
+        }
+        int n = arr.length;
+        if (n <= NETWORK_MAX_LENGTH) {
+            networkSort(arr, 0, n);
+            return;
+        }
+        long start = SortStats.startPhase();
+        int[] counts = new int[Integer.BYTES * RADIX];
+        for (int x : arr) {
+            int key = x ^ Integer.MIN_VALUE;
+            for (int pass = 0; pass < Integer.BYTES; pass++) {
+                counts[pass * RADIX + ((key >>> (pass * RADIX_BITS)) & (RADIX - 1))]++;
+            }
+        }
+        SortStats.endPhase("histogram", start);
+        int[] src = arr;
+        int[] dst = null;
+        for (int pass = 0; pass < Integer.BYTES; pass++) {
+            int shift = pass * RADIX_BITS;
+            int offset = pass * RADIX;
+            if (counts[offset + (((src[0] ^ Integer.MIN_VALUE) >>> shift) & (RADIX - 1))] == n) {
+                continue;
+            }
+            if (dst == null) {
+                dst = new int[n];
+            }
+            start = SortStats.startPhase();
+            prefixSums(counts, offset);
+            for (int x : src) {
+                dst[counts[offset + (((x ^ Integer.MIN_VALUE) >>> shift) & (RADIX - 1))]++] = x;
+            }
+            SortStats.endPhase("scatter", start);
+            SortStats.moves(n);
+            int[] temp = src;
+            src = dst;
+            dst = temp;
+        }
+        if (src != arr) {
+            System.arraycopy(src, 0, arr, 0, n);
+            SortStats.moves(n);
+        }
+    }
+
+    /**
+     * Byte-wise LSD radix sort of longs, with eight passes at most. Works like
+     * radixSort(int[]).
+     *
+     * It should be:
+     * out-of-place
+     * stable
+     * not adaptive
+     *
+     * Have a worst case running time of:
+     * O(n)
+     *
+     * And a best case running time of:
+     * O(n)
+     *
+     * @param arr the array to be sorted
+     * @throws java.lang.IllegalArgumentException if the array is null
+     */
+    public static void radixSort(long[] arr) {
+        if (arr == null) {
+            throw new IllegalArgumentException("The array is null");
+        }
+        radixSort(arr, 0);
+    }
+
+    /**
+     * Helper method for radixSort(long[]). Sorts only on the bytes from
+     * firstPass up, so with firstPass = 4 the longs are stably sorted by
+     * their high 32 bits alone. Arrays of at most NETWORK_MAX_LENGTH
+     * elements are sorted on the whole value by a sorting network instead,
+     * which gives the same order when the low bytes are already ascending,
+     * as they are in sortByIntKey.
+     *
+     * @param arr the array to be sorted
+     * @param firstPass the index of the least significant byte to sort on
+     */
+    private static void radixSort(long[] arr, int firstPass) {
+        int n = arr.length;
+        if (n <= NETWORK_MAX_LENGTH) {
+            networkSort(arr, 0, n);
+            return;
+        }
+        long start = SortStats.startPhase();
+        int[] counts = new int[Long.BYTES * RADIX];
+        for (long x : arr) {
+            long key = x ^ Long.MIN_VALUE;
+            for (int pass = firstPass; pass < Long.BYTES; pass++) {
+                counts[pass * RADIX + (int) ((key >>> (pass * RADIX_BITS)) & (RADIX - 1))]++;
+            }
+        }
+        SortStats.endPhase("histogram", start);
+        long[] src = arr;
+        long[] dst = null;
+        for (int pass = firstPass; pass < Long.BYTES; pass++) {
+            int shift = pass * RADIX_BITS;
+            int offset = pass * RADIX;
+            if (counts[offset + (int) (((src[0] ^ Long.MIN_VALUE) >>> shift) & (RADIX - 1))] == n) {
+                continue;
+            }
+            if (dst == null) {
+                dst = new long[n];
+            }
+            start = SortStats.startPhase();
+            prefixSums(counts, offset);
+            for (long x : src) {
+                dst[counts[offset + (int) (((x ^ Long.MIN_VALUE) >>> shift) & (RADIX - 1))]++] = x;
+            }
+            SortStats.endPhase("scatter", start);
+            SortStats.moves(n);
+            long[] temp = src;
+            src = dst;
+            dst = temp;
+        }
+        if (src != arr) {
+            System.arraycopy(src, 0, arr, 0, n);
+            SortStats.moves(n);
+        }
+    }
+
+    /**
+     * Byte-wise LSD radix sort of floats. Works like radixSort(int[]) on a
+     * key computed from the bits of each float: the sign bit is flipped for
+     * positive floats, and all bits are flipped for negative floats. The keys
+     * then compare as unsigned ints in the same order as the floats.
+     *
+     * The order is that of Arrays.sort(float[]): -0.0f comes before 0.0f,
+     * and NaNs go last. Arrays of at most NETWORK_MAX_LENGTH elements are
+     * sorted by a sorting network on the same keys.
+     *
+     * It should be:
+     * out-of-place
+     * stable
+     * not adaptive
+     *
+     * Have a worst case running time of:
+     * O(n)
+     *
+     * And a best case running time of:
+     * O(n)
+     *
+     * @param arr the array to be sorted
+     * @throws java.lang.IllegalArgumentException if the array is null
+     */
+    public static void radixSort(float[] arr) {
+        if (arr == null) {
+            throw new IllegalArgumentException("The array is null");
+        }
+        int n = arr.length;
+        if (n <= NETWORK_MAX_LENGTH) {
+            networkSort(arr, 0, n);
+            return;
+        }
+        long start = SortStats.startPhase();
+        int[] counts = new int[Integer.BYTES * RADIX];
+        for (float x : arr) {
+            int key = floatKey(x);
+            for (int pass = 0; pass < Integer.BYTES; pass++) {
+                counts[pass * RADIX + ((key >>> (pass * RADIX_BITS)) & (RADIX - 1))]++;
+            }
+        }
+        SortStats.endPhase("histogram", start);
+        float[] src = arr;
+        float[] dst = null;
+        for (int pass = 0; pass < Integer.BYTES; pass++) {
+            int shift = pass * RADIX_BITS;
+            int offset = pass * RADIX;
+            if (counts[offset + ((floatKey(src[0]) >>> shift) & (RADIX - 1))] == n) {
+                continue;
+            }
+            if (dst == null) {
+                dst = new float[n];
+            }
+            start = SortStats.startPhase();
+            prefixSums(counts, offset);
+            for (float x : src) {
+                dst[counts[offset + ((floatKey(x) >>> shift) & (RADIX - 1))]++] = x;
+            }
+            SortStats.endPhase("scatter", start);
+            SortStats.moves(n);
+            float[] temp = src;
+            src = dst;
+            dst = temp;
+        }
+        if (src != arr) {
+            System.arraycopy(src, 0, arr, 0, n);
+            SortStats.moves(n);
+        }
+    }
+
+    /**
+     * Byte-wise LSD radix sort of doubles. Works like radixSort(float[]) on
+     * 64-bit keys, with eight passes at most.
+     *
+     * It should be:
+     * out-of-place
+     * stable
+     * not adaptive
+     *
+     * Have a worst case running time of:
+     * O(n)
+     *
+     * And a best case running time of:
+     * O(n)
+     *
+     * @param arr the array to be sorted
+     * @throws java.lang.IllegalArgumentException if the array is null
+     */
+    public static void radixSort(double[] arr) {
+        if (arr == null) {
+            throw new IllegalArgumentException("The array is null");
+        }
+        int n = arr.length;
+        if (n <= NETWORK_MAX_LENGTH) {
+            networkSort(arr, 0, n);
+            return;
+        }
+        long start = SortStats.startPhase();
+        int[] counts = new int[Long.BYTES * RADIX];
+        for (double x : arr) {
+            long key = doubleKey(x);
+            for (int pass = 0; pass < Long.BYTES; pass++) {
+                counts[pass * RADIX + (int) ((key >>> (pass * RADIX_BITS)) & (RADIX - 1))]++;
+            }
+        }
+        SortStats.endPhase("histogram", start);
+        double[] src = arr;
+        double[] dst = null;
+        for (int pass = 0; pass < Long.BYTES; pass++) {
+            int shift = pass * RADIX_BITS;
+            int offset = pass * RADIX;
+            if (counts[offset + (int) ((doubleKey(src[0]) >>> shift) & (RADIX - 1))] == n) {
+                continue;
+            }
+            if (dst == null) {
+                dst = new double[n];
+            }
+            start = SortStats.startPhase();
+            prefixSums(counts, offset);
+            for (double x : src) {
+                dst[counts[offset + (int) ((doubleKey(x) >>> shift) & (RADIX - 1))]++] = x;
+            }
+            SortStats.endPhase("scatter", start);
+            SortStats.moves(n);
+            double[] temp = src;
+            src = dst;
+            dst = temp;
+        }
+        if (src != arr) {
+            System.arraycopy(src, 0, arr, 0, n);
+            SortStats.moves(n);
+        }
+    }
+
+    /**
+     * Stable sort by an int key extracted from each element.
+     *
+     * It should be:
+     * out-of-place
+     * stable
+     * not adaptive
+     *
+     * Have a worst case running time of:
+     * O(n)
+     *
+     * And a best case running time of:
+     * O(n)
+     *
+     * The key of every element is extracted exactly once. Each key is
+     * packed with the element's index into a long, key in the high half and
+     * index in the low half. The longs are radix sorted on the four key
+     * bytes only. Since the packed values start in
+     * index order and every pass is stable, elements with equal keys keep
+     * their order. The elements are then moved to their sorted positions in
+     * one pass.
+     *
+     * @param <T>       data type to sort
+     * @param arr       the array to be sorted
+     * @param extractor the function that gives the key of an element
+     * @throws java.lang.IllegalArgumentException if the array or extractor is
+     *                                            null
+     */
+    public static <T> void sortByIntKey(T[] arr, ToIntFunction<? super T> extractor) {
+        if (arr == null) {
+            throw new IllegalArgumentException("Cannot sort null array");
+        }
+        if (extractor == null) {
+            throw new IllegalArgumentException("Cannot sort with null key extractor");
+        }
+        int n = arr.length;
+        long start = SortStats.startPhase();
+        long[] packed = new long[n];
+        for (int i = 0; i < n; i++) {
+            packed[i] = ((long) extractor.applyAsInt(arr[i]) << Integer.SIZE) | i;
+        }
+        SortStats.endPhase("extract", start);
+        radixSort(packed, Integer.BYTES);
+        start = SortStats.startPhase();
+        T[] copy = arr.clone();
+        for (int i = 0; i < n; i++) {
+            arr[i] = copy[(int) packed[i]];
+        }
+        SortStats.moves(2L * n);
+        SortStats.endPhase("permute", start);
+    }
+
+    /**
+     * Stable sort by a long key extracted from each element.
+     *
+     * It should be:
+     * out-of-place
+     * stable
+     * not adaptive
+     *
+     * Have a worst case running time of:
+     * O(n)
+     *
+     * And a best case running time of:
+     * O(n)
+     *
+     * The key of every element is extracted exactly once into a long[], and
+     * the keys are radix sorted like radixSort(long[]). Each key carries the
+     * element's index along through every pass. The elements are then moved
+     * to their sorted positions in one pass. The comparisons are done on
+     * primitive keys, so no Comparator is called.
+     *
+     * @param <T>       data type to sort
+     * @param arr       the array to be sorted
+     * @param extractor the function that gives the key of an element
+     * @throws java.lang.IllegalArgumentException if the array or extractor is
+     *                                            null
+     */
+    public static <T> void sortByLongKey(T[] arr, ToLongFunction<? super T> extractor) {
+        if (arr == null) {
+            throw new IllegalArgumentException("Cannot sort null array");
+        }
+        if (extractor == null) {
+            throw new IllegalArgumentException("Cannot sort with null key extractor");
+        }
+        int n = arr.length;
+        long start = SortStats.startPhase();
+        long[] keys = new long[n];
+        int[] index = new int[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = extractor.applyAsLong(arr[i]);
+            index[i] = i;
+        }
+        SortStats.endPhase("extract", start);
+        radixSortPairs(keys, index);
+        start = SortStats.startPhase();
+        T[] copy = arr.clone();
+        for (int i = 0; i < n; i++) {
+            arr[i] = copy[index[i]];
+        }
+        SortStats.moves(2L * n);
+        SortStats.endPhase("permute", start);
+    }
+
+    /**
+     * Radix sorts keys like radixSort(long[]) and moves index along with
+     * them. Up to NETWORK_MAX_LENGTH keys are sorted by a stable sorting
+     * network instead.
+     *
+     * @param keys the keys to sort
+     * @param index the values moved with the keys
+     */
+    private static void radixSortPairs(long[] keys, int[] index) {
+        int n = keys.length;
+        if (n <= NETWORK_MAX_LENGTH) {
+            networkSortPairs(keys, index);
+            return;
+        }
+        long start = SortStats.startPhase();
+        int[] counts = new int[Long.BYTES * RADIX];
+        for (long x : keys) {
+            long key = x ^ Long.MIN_VALUE;
+            for (int pass = 0; pass < Long.BYTES; pass++) {
+                counts[pass * RADIX + (int) ((key >>> (pass * RADIX_BITS)) & (RADIX - 1))]++;
+            }
+        }
+        SortStats.endPhase("histogram", start);
+        long[] srcKeys = keys;
+        int[] srcIndex = index;
+        long[] dstKeys = null;
+        int[] dstIndex = null;
+        for (int pass = 0; pass < Long.BYTES; pass++) {
+            int shift = pass * RADIX_BITS;
+            int offset = pass * RADIX;
+            if (counts[offset + (int) (((srcKeys[0] ^ Long.MIN_VALUE) >>> shift) & (RADIX - 1))] == n) {
+                continue;
+            }
+            if (dstKeys == null) {
+                dstKeys = new long[n];
+                dstIndex = new int[n];
+            }
+            start = SortStats.startPhase();
+            prefixSums(counts, offset);
+            for (int i = 0; i < n; i++) {
+                int pos = counts[offset + (int) (((srcKeys[i] ^ Long.MIN_VALUE) >>> shift) & (RADIX - 1))]++;
+                dstKeys[pos] = srcKeys[i];
+                dstIndex[pos] = srcIndex[i];
+            }
+            SortStats.endPhase("scatter", start);
+            SortStats.moves(n);
+            long[] tempKeys = srcKeys;
+            srcKeys = dstKeys;
+            dstKeys = tempKeys;
+            int[] tempIndex = srcIndex;
+            srcIndex = dstIndex;
+            dstIndex = tempIndex;
+        }
+        if (srcIndex != index) {
+            System.arraycopy(srcIndex, 0, index, 0, n);
+        }
+    }
+
+    /**
+     * Parallel byte-wise LSD radix sort of ints. Gives the same result as
+     * radixSort(int[]).
+     *
+     * It should be:
+     * out-of-place
+     * stable
+     * not adaptive
+     *
+     * Have a worst case running time of:
+     * O(n / p + 256 p) per pass for p threads
+     *
+     * And a best case running time of:
+     * O(n / p)
+     *
+     * The array is cut into one chunk per thread. In every pass, each thread
+     * counts the digits of its own chunk. The per-chunk histograms are then
+     * combined by a prefix sum over (bucket, chunk), in that order, which
+     * gives every thread a disjoint set of positions in the shared scratch
+     * array for each bucket. Each thread then scatters its chunk into those
+     * positions, with no locking. Since lower chunks get lower positions
+     * within a bucket, every pass is stable. Like radixSort(int[]), passes
+     * where every key has the same digit are skipped. Arrays of at most
+     * PARALLEL_THRESHOLD elements are sorted sequentially.
+     *
+     * @param arr         the array to be sorted
+     * @param parallelism the number of worker threads to use
+     * @throws java.lang.IllegalArgumentException if the array is null, or if
+     *                                            parallelism is less than 1
+     */
+    public static void parallelRadixSort(int[] arr, int parallelism) {
+        if (arr == null) {
+            throw new IllegalArgumentException("The array is null");
+        }
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1");
+        }
+        int n = arr.length;
+        if (n <= PARALLEL_THRESHOLD || parallelism == 1) {
+            radixSort(arr);
+            return;
+        }
+        int chunks = parallelism;
+        int[][] digitCounts = new int[chunks][Integer.BYTES * RADIX];
+        int[][] offsets = new int[chunks][RADIX];
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            long start = SortStats.startPhase();
+            runChunks(pool, chunks, chunk -> {
+                int[] count = digitCounts[chunk];
+                int hi = chunkStart(n, chunks, chunk + 1);
+                for (int i = chunkStart(n, chunks, chunk); i < hi; i++) {
+                    int key = arr[i] ^ Integer.MIN_VALUE;
+                    for (int pass = 0; pass < Integer.BYTES; pass++) {
+                        count[pass * RADIX + ((key >>> (pass * RADIX_BITS)) & (RADIX - 1))]++;
+                    }
+                }
+            });
+            int[] total = sumCounts(digitCounts);
+            SortStats.endPhase("histogram", start);
+            int[] from = arr;
+            int[] to = null;
+            for (int pass = 0; pass < Integer.BYTES; pass++) {
+                int shift = pass * RADIX_BITS;
+                if (total[pass * RADIX + (((from[0] ^ Integer.MIN_VALUE) >>> shift) & (RADIX - 1))] == n) {
+                    continue;
+                }
+                if (to == null) {
+                    to = new int[n];
+                }
+                int[] src = from;
+                int[] dst = to;
+                start = SortStats.startPhase();
+                if (pass == 0) {
+                    for (int chunk = 0; chunk < chunks; chunk++) {
+                        System.arraycopy(digitCounts[chunk], 0, offsets[chunk], 0, RADIX);
+                    }
+                } else {
+                    runChunks(pool, chunks, chunk -> {
+                        int[] count = offsets[chunk];
+                        Arrays.fill(count, 0);
+                        int hi = chunkStart(n, chunks, chunk + 1);
+                        for (int i = chunkStart(n, chunks, chunk); i < hi; i++) {
+                            count[((src[i] ^ Integer.MIN_VALUE) >>> shift) & (RADIX - 1)]++;
+                        }
+                    });
+                }
+                chunkOffsets(offsets);
+                SortStats.endPhase("histogram", start);
+                start = SortStats.startPhase();
+                runChunks(pool, chunks, chunk -> {
+                    int[] offset = offsets[chunk];
+                    int hi = chunkStart(n, chunks, chunk + 1);
+                    for (int i = chunkStart(n, chunks, chunk); i < hi; i++) {
+                        int x = src[i];
+                        dst[offset[((x ^ Integer.MIN_VALUE) >>> shift) & (RADIX - 1)]++] = x;
+                    }
+                });
+                SortStats.endPhase("scatter", start);
+                SortStats.moves(n);
+                from = dst;
+                to = src;
+            }
+            if (from != arr) {
+                System.arraycopy(from, 0, arr, 0, n);
+                SortStats.moves(n);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Parallel byte-wise LSD radix sort of longs. Works like
+     * parallelRadixSort(int[], int) with eight passes at most, and gives the
+     * same result as radixSort(long[]).
+     *
+     * It should be:
+     * out-of-place
+     * stable
+     * not adaptive
+     *
+     * Have a worst case running time of:
+     * O(n / p + 256 p) per pass for p threads
+     *
+     * And a best case running time of:
+     * O(n / p)
+     *
+     * @param arr         the array to be sorted
+     * @param parallelism the number of worker threads to use
+     * @throws java.lang.IllegalArgumentException if the array is null, or if
+     *                                            parallelism is less than 1
+     */
+    public static void parallelRadixSort(long[] arr, int parallelism) {
+        if (arr == null) {
+            throw new IllegalArgumentException("The array is null");
+        }
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1");
+        }
+        int n = arr.length;
+        if (n <= PARALLEL_THRESHOLD || parallelism == 1) {
+            radixSort(arr);
+            return;
+        }
+        int chunks = parallelism;
+        int[][] digitCounts = new int[chunks][Long.BYTES * RADIX];
+        int[][] offsets = new int[chunks][RADIX];
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            long start = SortStats.startPhase();
+            runChunks(pool, chunks, chunk -> {
+                int[] count = digitCounts[chunk];
+                int hi = chunkStart(n, chunks, chunk + 1);
+                for (int i = chunkStart(n, chunks, chunk); i < hi; i++) {
+                    long key = arr[i] ^ Long.MIN_VALUE;
+                    for (int pass = 0; pass < Long.BYTES; pass++) {
+                        count[pass * RADIX + (int) ((key >>> (pass * RADIX_BITS)) & (RADIX - 1))]++;
+                    }
+                }
+            });
+            int[] total = sumCounts(digitCounts);
+            SortStats.endPhase("histogram", start);
+            long[] from = arr;
+            long[] to = null;
+            for (int pass = 0; pass < Long.BYTES; pass++) {
+                int shift = pass * RADIX_BITS;
+                if (total[pass * RADIX + (int) (((from[0] ^ Long.MIN_VALUE) >>> shift) & (RADIX - 1))] == n) {
+                    continue;
+                }
+                if (to == null) {
+                    to = new long[n];
+                }
+                long[] src = from;
+                long[] dst = to;
+                start = SortStats.startPhase();
+                if (pass == 0) {
+                    for (int chunk = 0; chunk < chunks; chunk++) {
+                        System.arraycopy(digitCounts[chunk], 0, offsets[chunk], 0, RADIX);
+                    }
+                } else {
+                    runChunks(pool, chunks, chunk -> {
+                        int[] count = offsets[chunk];
+                        Arrays.fill(count, 0);
+                        int hi = chunkStart(n, chunks, chunk + 1);
+                        for (int i = chunkStart(n, chunks, chunk); i < hi; i++) {
+                            count[(int) (((src[i] ^ Long.MIN_VALUE) >>> shift) & (RADIX - 1))]++;
+                        }
+                    });
+                }
+                chunkOffsets(offsets);
+                SortStats.endPhase("histogram", start);
+                start = SortStats.startPhase();
+                runChunks(pool, chunks, chunk -> {
+                    int[] offset = offsets[chunk];
+                    int hi = chunkStart(n, chunks, chunk + 1);
+                    for (int i = chunkStart(n, chunks, chunk); i < hi; i++) {
+                        long x = src[i];
+                        dst[offset[(int) (((x ^ Long.MIN_VALUE) >>> shift) & (RADIX - 1))]++] = x;
+                    }
+                });
+                SortStats.endPhase("scatter", start);
+                SortStats.moves(n);
+                from = dst;
+                to = src;
+            }
+            if (from != arr) {
+                System.arraycopy(from, 0, arr, 0, n);
+                SortStats.moves(n);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Runs body once for every chunk on the pool and waits for all of them.
+     *
+     * @param pool the pool to run on
+     * @param chunks the number of chunks
+     * @param body the work for one chunk, given its index
+     */
+    private static void runChunks(ForkJoinPool pool, int chunks, IntConsumer body) {
+        List<ForkJoinTask<?>> tasks = new ArrayList<>(chunks);
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            int index = chunk;
+            tasks.add(pool.submit(() -> body.accept(index)));
+        }
+        for (ForkJoinTask<?> task : tasks) {
+            task.join();
+        }
+    }
+
+    /**
+     * Returns the first index of a chunk when n elements are cut into chunks
+     * of nearly equal size. chunkStart(n, chunks, chunks) is n.
+     *
+     * @param n the number of elements
+     * @param chunks the number of chunks
+     * @param chunk the index of the chunk
+     * @return the first index of the chunk
+     */
+    private static int chunkStart(int n, int chunks, int chunk) {
+        return (int) ((long) n * chunk / chunks);
+    }
+
+    /**
+     * Adds up the histograms of all chunks.
+     *
+     * @param counts the histograms of each chunk
+     * @return the histogram of the whole array
+     */
+    private static int[] sumCounts(int[][] counts) {
+        int[] total = new int[counts[0].length];
+        for (int[] count : counts) {
+            for (int i = 0; i < total.length; i++) {
+                total[i] += count[i];
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Turns the per-chunk bucket counts of one digit into the index where
+     * each chunk starts writing each bucket: all of bucket b comes before
+     * bucket b + 1, and within a bucket, chunk c comes before chunk c + 1.
+     *
+     * @param counts the bucket counts of each chunk, replaced by the offsets
+     */
+    private static void chunkOffsets(int[][] counts) {
+        int sum = 0;
+        for (int b = 0; b < RADIX; b++) {
+            for (int[] count : counts) {
+                int c = count[b];
+                count[b] = sum;
+                sum += c;
+            }
+        }
+    }
+
+    /**
+     * Turns the bucket counts of one digit, counts[offset] to
+     * counts[offset + RADIX - 1], into the index where each bucket starts.
+     *
+     * @param counts the histograms of all digits
+     * @param offset the index of the first bucket of the digit
+     */
+    private static void prefixSums(int[] counts, int offset) {
+        int sum = 0;
+        for (int i = offset; i < offset + RADIX; i++) {
+            int count = counts[i];
+            counts[i] = sum;
+            sum += count;
+        }
+    }
+
+    /**
+     * Maps a float to an int whose unsigned order is the order of
+     * Float.compare. All NaNs map to the same key.
+     *
+     * @param x the float
+     * @return the key of x
+     */
+    private static int floatKey(float x) {
+        int bits = Float.floatToIntBits(x);
+        return bits ^ ((bits >> 31) | Integer.MIN_VALUE);
+    }
+
+    /**
+     * Maps a double to a long whose unsigned order is the order of
+     * Double.compare. All NaNs map to the same key.
+     *
+     * @param x the double
+     * @return the key of x
+     */
+    private static long doubleKey(double x) {
+        long bits = Double.doubleToLongBits(x);
+        return bits ^ ((bits >> 63) | Long.MIN_VALUE);
+    }
+
+    /**
+     * Extracts the radix digits of a key for the MSD radix sorts.
+     *
+     * @param <T> the type of key
+     */
+    private interface RadixDigits<T> {
+
+        /**
+         * Returns the d-th byte of key, or -1 if key has fewer than d + 1
+         * bytes.
+         *
+         * @param key the key
+         * @param d the index of the byte
+         * @return the byte as an int from 0 to 255, or -1 past the end
+         */
+        int digit(T key, int d);
+    }
+
+    /**
+     * The digits of a String: the high byte, then the low byte of each char,
+     * so that the order is that of String.compareTo.
+     */
+    private static final RadixDigits<String> STRING_DIGITS = (key, d) -> {
+        if ((d >>> 1) >= key.length()) {
+            return -1;
+        }
+        char c = key.charAt(d >>> 1);
+        return (d & 1) == 0 ? c >>> 8 : c & 0xFF;
+    };
+
+    /**
+     * The digits of a byte array: its bytes, unsigned.
+     */
+    private static final RadixDigits<byte[]> BYTE_DIGITS = (key, d) -> d < key.length ? key[d] & 0xFF : -1;
+
+    /**
+     * In-place MSD radix sort (American flag sort) of Strings.
+     *
+     * It should be:
+     * in-place
+     * unstable
+     * not adaptive
+     *
+     * Have a worst case running time of:
+     * O(n + total length of the strings)
+     *
+     * And a best case running time of:
+     * O(n)
+     *
+     * Strings are sorted one byte of a char at a time from the left. Each
+     * range is counted into 257 buckets, one for strings that have ended and
+     * one for each byte value. The elements are then permuted into their
+     * buckets in place by following cycles, and every bucket but the first is
+     * sorted on the next byte. A byte that is the same in every string of a
+     * range, such as the high byte of every ASCII char, is skipped after the
+     * count without a permutation pass. Buckets of at most
+     * INSERTION_SORT_THRESHOLD elements are finished by insertion sort.
+     * Ranges are kept on an explicit stack, so long common prefixes cannot
+     * overflow the call stack.
+     *
+     * The order is that of String.compareTo.
+     *
+     * @param arr the array to be sorted
+     * @throws java.lang.IllegalArgumentException if the array or any element in
+     *                                            it is null
+     */
+    public static void americanFlagSort(String[] arr) {
+        checkKeys(arr);
+        msdSort(arr, 0, arr.length, 0, STRING_DIGITS, Comparator.naturalOrder());
+    }
+
+    /**
+     * In-place MSD radix sort (American flag sort) of byte arrays. Works like
+     * americanFlagSort(String[]) with one digit per byte.
+     *
+     * It should be:
+     * in-place
+     * unstable
+     * not adaptive
+     *
+     * Have a worst case running time of:
+     * O(n + total length of the arrays)
+     *
+     * And a best case running time of:
+     * O(n)
+     *
+     * The order is that of Arrays.compareUnsigned: bytes compare as unsigned
+     * values, and a prefix comes before any longer array.
+     *
+     * @param arr the array to be sorted
+     * @throws java.lang.IllegalArgumentException if the array or any element in
+     *                                            it is null
+     */
+    public static void americanFlagSort(byte[][] arr) {
+        checkKeys(arr);
+        msdSort(arr, 0, arr.length, 0, BYTE_DIGITS, Arrays::compareUnsigned);
+    }
+
+    /**
+     * Parallel American flag sort of Strings. The array is partitioned on the
+     * first byte where the strings differ, and every bucket larger than
+     * PARALLEL_THRESHOLD is partitioned again as a separate ForkJoin task, so
+     * a skewed first byte does not leave one thread with most of the work.
+     * Smaller buckets are sorted sequentially by their own task. Gives the
+     * same result as americanFlagSort(String[]).
+     *
+     * @param arr         the array to be sorted
+     * @param parallelism the number of worker threads to use
+     * @throws java.lang.IllegalArgumentException if the array or any element in
+     *                                            it is null, or if parallelism
+     *                                            is less than 1
+     */
+    public static void parallelAmericanFlagSort(String[] arr, int parallelism) {
+        checkKeys(arr);
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1");
+        }
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            parallelMsdSort(arr, STRING_DIGITS, Comparator.naturalOrder(), pool);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Parallel American flag sort of byte arrays. Works like
+     * parallelAmericanFlagSort(String[]) with one digit per byte. Gives the
+     * same result as americanFlagSort(byte[][]).
+     *
+     * @param arr         the array to be sorted
+     * @param parallelism the number of worker threads to use
+     * @throws java.lang.IllegalArgumentException if the array or any element in
+     *                                            it is null, or if parallelism
+     *                                            is less than 1
+     */
+    public static void parallelAmericanFlagSort(byte[][] arr, int parallelism) {
+        checkKeys(arr);
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1");
+        }
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            parallelMsdSort(arr, BYTE_DIGITS, Arrays::compareUnsigned, pool);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Checks that the array and all its elements are non-null.
+     *
+     * @param arr the array to check
+     */
+    private static void checkKeys(Object[] arr) {
+        if (arr == null) {
+            throw new IllegalArgumentException("Cannot sort null array");
+        }
+        for (Object key : arr) {
+            if (key == null) {
+                throw new IllegalArgumentException("Cannot sort null data");
+            }
+        }
+    }
+
+    /**
+     * Helper method for americanFlagSort. Sorts [lo, hi), whose elements
+     * share their first d digits.
+     *
+     * @param arr the array to sort
+     * @param lo the first index, inclusive
+     * @param hi the last index, exclusive
+     * @param d the first digit that may differ
+     * @param digits the digit function
+     * @param comparator the Comparator used by insertion sort
+     * @param <T> the type of key
+     */
+    private static <T> void msdSort(T[] arr, int lo, int hi, int d, RadixDigits<T> digits,
+                                    Comparator<T> comparator) {
+        comparator = SortStats.counting(comparator);
+        Deque<int[]> stack = new ArrayDeque<>();
+        stack.push(new int[] {lo, hi, d});
+        while (!stack.isEmpty()) {
+            int[] range = stack.pop();
+            lo = range[0];
+            hi = range[1];
+            d = range[2];
+            SortStats.depth(d + 1);
+            if (hi - lo <= INSERTION_SORT_THRESHOLD) {
+                insertionSort(arr, lo, hi, comparator);
+                continue;
+            }
+            int[] counts = new int[RADIX + 2];
+            d = splitDigit(arr, lo, hi, d, digits, counts);
+            if (d < 0) {
+                continue;
+            }
+            SortStats.depth(d + 1);
+            int[] starts = flagPartition(arr, lo, hi, d, digits, counts);
+            for (int b = 1; b <= RADIX; b++) {
+                if (starts[b + 1] - starts[b] > 1) {
+                    stack.push(new int[] {starts[b], starts[b + 1], d + 1});
+                }
+            }
+        }
+    }
+
+    /**
+     * Counts the d-th digits of [lo, hi) into counts, moving on to the next
+     * digit for as long as every key has the same one. The count of digit v
+     * ends up in counts[v + 2], so keys that have ended are in counts[1].
+     *
+     * @param arr the array to count
+     * @param lo the first index, inclusive
+     * @param hi the last index, exclusive
+     * @param d the first digit that may differ
+     * @param digits the digit function
+     * @param counts the RADIX + 2 counters to fill
+     * @param <T> the type of key
+     * @return the first digit from d on where the keys differ, or -1 if all
+     * the keys are equal
+     */
+    private static <T> int splitDigit(T[] arr, int lo, int hi, int d, RadixDigits<T> digits, int[] counts) {
+        while (true) {
+            Arrays.fill(counts, 0);
+            for (int i = lo; i < hi; i++) {
+                counts[digits.digit(arr[i], d) + 2]++;
+            }
+            int first = digits.digit(arr[lo], d);
+            if (counts[first + 2] < hi - lo) {
+                return d;
+            }
+            if (first < 0) {
+                return -1;
+            }
+            d++;
+        }
+    }
+
+    /**
+     * Permutes [lo, hi) into buckets by the d-th digit. Bucket 0 holds the
+     * keys that have ended, bucket b holds digit b - 1.
+     *
+     * @param arr the array to partition
+     * @param lo the first index, inclusive
+     * @param hi the last index, exclusive
+     * @param d the digit to partition on
+     * @param digits the digit function
+     * @param counts the counts from splitDigit, turned into the bucket starts
+     * @param <T> the type of key
+     * @return the start of every bucket, followed by hi
+     */
+    private static <T> int[] flagPartition(T[] arr, int lo, int hi, int d, RadixDigits<T> digits,
+                                           int[] counts) {
+        int[] starts = counts;
+        starts[0] = lo;
+        for (int b = 1; b < starts.length; b++) {
+            starts[b] += starts[b - 1];
+        }
+        int[] next = Arrays.copyOf(starts, RADIX + 1);
+        SortStats.moves(hi - lo);
+        for (int b = 0; b <= RADIX; b++) {
+            int end = starts[b + 1];
+            while (next[b] < end) {
+                T data = arr[next[b]];
+                int bucket = digits.digit(data, d) + 1;
+                while (bucket != b) {
+                    T temp = arr[next[bucket]];
+                    arr[next[bucket]++] = data;
+                    data = temp;
+                    bucket = digits.digit(data, d) + 1;
+                }
+                arr[next[b]++] = data;
+            }
+        }
+        return starts;
+    }
+
+    /**
+     * Helper method for the parallel American flag sorts.
+     *
+     * @param arr the array to sort
+     * @param digits the digit function
+     * @param comparator the Comparator used by insertion sort
+     * @param pool the pool to run the tasks on
+     * @param <T> the type of key
+     */
+    private static <T> void parallelMsdSort(T[] arr, RadixDigits<T> digits, Comparator<T> comparator,
+                                            ForkJoinPool pool) {
+        if (arr.length <= PARALLEL_THRESHOLD) {
+            msdSort(arr, 0, arr.length, 0, digits, comparator);
+            return;
+        }
+        Comparator<T> counting = SortStats.counting(comparator);
+        long start = SortStats.startPhase();
+        try {
+            pool.invoke(new MsdSortTask<>(arr, 0, arr.length, 0, digits, counting));
+        } finally {
+            SortStats.endPhase("parallel msd", start);
+        }
+    }
+
+    /**
+     * Sorts [lo, hi), whose elements share their first d digits. Ranges
+     * larger than PARALLEL_THRESHOLD are partitioned and their buckets
+     * forked; smaller ones are sorted by msdSort.
+     *
+     * @param <T> the type of key
+     */
+    private static final class MsdSortTask<T> extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final T[] arr;
+        private final int lo;
+        private final int hi;
+        private final int d;
+        private final RadixDigits<T> digits;
+        private final Comparator<T> comparator;
+
+        /**
+         * Constructs the task.
+         * @param arr the array to sort
+         * @param lo the first index, inclusive
+         * @param hi the last index, exclusive
+         * @param d the first digit that may differ
+         * @param digits the digit function
+         * @param comparator the Comparator used by insertion sort
+         */
+        MsdSortTask(T[] arr, int lo, int hi, int d, RadixDigits<T> digits, Comparator<T> comparator) {
+            this.arr = arr;
+            this.lo = lo;
+            this.hi = hi;
+            this.d = d;
+            this.digits = digits;
+            this.comparator = comparator;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo <= PARALLEL_THRESHOLD) {
+                msdSort(arr, lo, hi, d, digits, comparator);
+                return;
+            }
+            int[] counts = new int[RADIX + 2];
+            int split = splitDigit(arr, lo, hi, d, digits, counts);
+            if (split < 0) {
+                return;
+            }
+            int[] starts = flagPartition(arr, lo, hi, split, digits, counts);
+            List<MsdSortTask<T>> tasks = new ArrayList<>();
+            for (int b = 1; b <= RADIX; b++) {
+                if (starts[b + 1] - starts[b] > 1) {
+                    tasks.add(new MsdSortTask<>(arr, starts[b], starts[b + 1], split + 1, digits, comparator));
+                }
+            }
+            invokeAll(tasks);
+        }
+    }
+
+    /**
+     * Implement heap sort.
+     *
+     * It should be:
+     * out-of-place
+     * unstable
+     * not adaptive
+     *
+     * Have a worst case running time of:
+     * O(n log n)
+     *
+     * And a best case running time of:
+     * O(n log n)
+     *
+     * Use java.util.PriorityQueue as the heap. Note that in this
+     * PriorityQueue implementation, elements are removed from smallest
+     * element to largest element.
+     *
+     * Initialize the PriorityQueue using its build heap constructor (look at
+     * the different constructors of java.util.PriorityQueue).
+     *
+     * When SortStats is enabled the PriorityQueue is given a counting
+     * Comparator instead. No build heap constructor takes a Comparator, so
+     * the heap is then built by adding the elements one at a time.
+     *
+     * Return an int array with a capacity equal to the size of the list. The
+     * returned array should have the elements in the list in sorted order.
+     *
+     * @param data the data to sort
+     * @return the array with length equal to the size of the input list that
+     * holds the elements from the list is sorted order
+     * @throws java.lang.IllegalArgumentException if the data is null
+     */
     public static int[] heapSort(List<Integer> data) {
         if (data == null) {
             throw new IllegalArgumentException("Cannot sort with null data");
         }
-        PriorityQueue<Integer> pq = new PriorityQueue<>(data);
+        PriorityQueue<Integer> pq;
+        if (SortStats.ENABLED) {
+            Comparator<Integer> comparator = SortStats.counting(Comparator.<Integer>naturalOrder());
+            pq = new PriorityQueue<>(Math.max(1, data.size()), comparator);
+            pq.addAll(data);
+        } else {
+            pq = new PriorityQueue<>(data);
+        }
         int[] sorted = new int[data.size()];
         for (int i = 0; i < data.size(); i++) {
             sorted[i] = pq.remove();
         }
+        SortStats.moves(sorted.length);
 
         return sorted;
     }
+
+    /**
+     * In-place heap sort of ints.
+     *
+     * It should be:
+     * in-place
+     * unstable
+     * not adaptive
+     *
+     * Have a worst case running time of:
+     * O(n log n)
+     *
+     * And a best case running time of:
+     * O(n log n)
+     *
+     * The array itself is turned into a binary max-heap by sifting down every
+     * parent, from the last one to the root. The maximum is then repeatedly
+     * swapped to the end of the shrinking heap. Unlike heapSort(List), no
+     * value is boxed and no extra array is allocated.
+     *
+     * @param arr the array to be sorted
+     * @throws java.lang.IllegalArgumentException if the array is null
+     */
+    public static void heapSort(int[] arr) {
+        if (arr == null) {
+            throw new IllegalArgumentException("Cannot sort null array");
+        }
+        heapSort(arr, 0, arr.length);
+    }
+
+    /**
+     * In-place heap sort of longs. Works like heapSort(int[]).
+     *
+     * It should be:
+     * in-place
+     * unstable
+     * not adaptive
+     *
+     * Have a worst case running time of:
+     * O(n log n)
+     *
+     * And a best case running time of:
+     * O(n log n)
+     *
+     * @param arr the array to be sorted
+     * @throws java.lang.IllegalArgumentException if the array is null
+     */
+    public static void heapSort(long[] arr) {
+        if (arr == null) {
+            throw new IllegalArgumentException("Cannot sort null array");
+        }
+        heapSort(arr, 0, arr.length);
+    }
+
+    /**
+     * In-place heap sort with a Comparator. Works like heapSort(int[]). This
+     * is the same heapsort that introSort falls back to when its recursion
+     * gets too deep.
+     *
+     * It should be:
+     * in-place
+     * unstable
+     * not adaptive
+     *
+     * Have a worst case running time of:
+     * O(n log n)
+     *
+     * And a best case running time of:
+     * O(n log n)
+     *
+     * @param <T>        data type to sort
+     * @param arr        the array to be sorted
+     * @param comparator the Comparator used to compare the data in arr
+     * @throws java.lang.IllegalArgumentException if the array or comparator is
+     *                                            null
+     */
+    public static <T> void heapSort(T[] arr, Comparator<T> comparator) {
+        if (arr == null) {
+            throw new IllegalArgumentException("Cannot sort null array");
+        }
+        if (comparator == null) {
+            throw new IllegalArgumentException("Cannot sort with null comparator");
+        }
+        comparator = SortStats.counting(comparator);
+        heapSort(arr, 0, arr.length, comparator);
+    }
+
+    /**
+     * Heapsorts the range [lo, hi) of ints in place with a binary max-heap.
+     * The last NETWORK_MAX_LENGTH elements left in the heap are sorted by a
+     * sorting network instead of being extracted one by one.
+     *
+     * @param arr the array to sort
+     * @param lo the first index, inclusive
+     * @param hi the last index, exclusive
+     */
+    private static void heapSort(int[] arr, int lo, int hi) {
+        int n = hi - lo;
+        if (n <= NETWORK_MAX_LENGTH) {
+            networkSort(arr, lo, hi);
+            return;
+        }
+        for (int i = n / 2 - 1; i >= 0; i--) {
+            siftDown(arr, lo, i, n);
+        }
+        for (int end = n - 1; end >= NETWORK_MAX_LENGTH; end--) {
+            int temp = arr[lo];
+            arr[lo] = arr[lo + end];
+            arr[lo + end] = temp;
+            SortStats.moves(2);
+            siftDown(arr, lo, 0, end);
+        }
+        networkSort(arr, lo, lo + NETWORK_MAX_LENGTH);
+    }
+
+    /**
+     * Sifts the int at heap position i down a max-heap stored from arr[base].
+     *
+     * @param arr the array holding the heap
+     * @param base the index of the root of the heap
+     * @param i the heap position to sift down
+     * @param n the size of the heap
+     */
+    private static void siftDown(int[] arr, int base, int i, int n) {
+        int data = arr[base + i];
+        int child = 2 * i + 1;
+        while (child < n) {
+            if (child + 1 < n) {
+                SortStats.comparisons(1);
+                if (arr[base + child + 1] > arr[base + child]) {
+                    child++;
+                }
+            }
+            SortStats.comparisons(1);
+            if (arr[base + child] <= data) {
+                break;
+            }
+            arr[base + i] = arr[base + child];
+            SortStats.moves(1);
+            i = child;
+            child = 2 * i + 1;
+        }
+        arr[base + i] = data;
+        SortStats.moves(1);
+    }
+
+    /**
+     * Heapsorts the range [lo, hi) of longs in place with a binary max-heap.
+     * Works like heapSort(int[], int, int).
+     *
+     * @param arr the array to sort
+     * @param lo the first index, inclusive
+     * @param hi the last index, exclusive
+     */
+    private static void heapSort(long[] arr, int lo, int hi) {
+        int n = hi - lo;
+        if (n <= NETWORK_MAX_LENGTH) {
+            networkSort(arr, lo, hi);
+            return;
+        }
+        for (int i = n / 2 - 1; i >= 0; i--) {
+            siftDown(arr, lo, i, n);
+        }
+        for (int end = n - 1; end >= NETWORK_MAX_LENGTH; end--) {
+            long temp = arr[lo];
+            arr[lo] = arr[lo + end];
+            arr[lo + end] = temp;
+            SortStats.moves(2);
+            siftDown(arr, lo, 0, end);
+        }
+        networkSort(arr, lo, lo + NETWORK_MAX_LENGTH);
+    }
+
+    /**
+     * Sifts the long at heap position i down a max-heap stored from
+     * arr[base].
+     *
+     * @param arr the array holding the heap
+     * @param base the index of the root of the heap
+     * @param i the heap position to sift down
+     * @param n the size of the heap
+     */
+    private static void siftDown(long[] arr, int base, int i, int n) {
+        long data = arr[base + i];
+        int child = 2 * i + 1;
+        while (child < n) {
+            if (child + 1 < n) {
+                SortStats.comparisons(1);
+                if (arr[base + child + 1] > arr[base + child]) {
+                    child++;
+                }
+            }
+            SortStats.comparisons(1);
+            if (arr[base + child] <= data) {
+                break;
+            }
+            arr[base + i] = arr[base + child];
+            SortStats.moves(1);
+            i = child;
+            child = 2 * i + 1;
+        }
+        arr[base + i] = data;
+        SortStats.moves(1);
+    }
+
+    /**
+     * Sorts ints with the algorithm that fits the input best.
+     *
+     * Arrays of at most NETWORK_MAX_LENGTH elements go to networkSort. For
+     * longer ones, SAMPLE_SIZE evenly spaced adjacent pairs are sampled.
+     * If none descend and a full scan confirms it, the array is already
+     * sorted and is left alone. If all of them descend and a full scan
+     * confirms it, the array is reversed. Otherwise the array is radix sorted,
+     * in parallel from PARALLEL_RADIX_THRESHOLD elements when there is more
+     * than one processor. The sample and the choice are logged at Level.FINE
+     * to the logger named after this class.
+     *
+     * @param arr the array to be sorted
+     * @throws java.lang.IllegalArgumentException if the array is null
+     */
+    public static void sort(int[] arr) {
+        if (arr == null) {
+            throw new IllegalArgumentException("The array is null");
+        }
+        int n = arr.length;
+        if (n <= NETWORK_MAX_LENGTH) {
+            networkSort(arr, 0, n);
+            logChoice("int[]", n, null, "networkSort");
+            return;
+        }
+        InputProfile profile = new InputProfile(n, (i, j) -> Integer.compare(arr[i], arr[j]));
+        int processors = Runtime.getRuntime().availableProcessors();
+        String choice;
+        if (profile.isSorted()) {
+            choice = "none, already sorted";
+        } else if (profile.isReversed()) {
+            for (int i = 0, j = n - 1; i < j; i++, j--) {
+                int temp = arr[i];
+                arr[i] = arr[j];
+                arr[j] = temp;
+            }
+            choice = "reverse";
+        } else if (n >= PARALLEL_RADIX_THRESHOLD && processors > 1) {
+            parallelRadixSort(arr, processors);
+            choice = "parallelRadixSort";
+        } else {
+            radixSort(arr);
+            choice = "radixSort";
+        }
+        logChoice("int[]", n, profile, choice);
+    }
+
+    /**
+     * Sorts longs with the algorithm that fits the input best. Works like
+     * sort(int[]).
+     *
+     * @param arr the array to be sorted
+     * @throws java.lang.IllegalArgumentException if the array is null
+     */
+    public static void sort(long[] arr) {
+        if (arr == null) {
+            throw new IllegalArgumentException("The array is null");
+        }
+        int n = arr.length;
+        if (n <= NETWORK_MAX_LENGTH) {
+            networkSort(arr, 0, n);
+            logChoice("long[]", n, null, "networkSort");
+            return;
+        }
+        InputProfile profile = new InputProfile(n, (i, j) -> Long.compare(arr[i], arr[j]));
+        int processors = Runtime.getRuntime().availableProcessors();
+        String choice;
+        if (profile.isSorted()) {
+            choice = "none, already sorted";
+        } else if (profile.isReversed()) {
+            for (int i = 0, j = n - 1; i < j; i++, j--) {
+                long temp = arr[i];
+                arr[i] = arr[j];
+                arr[j] = temp;
+            }
+            choice = "reverse";
+        } else if (n >= PARALLEL_RADIX_THRESHOLD && processors > 1) {
+            parallelRadixSort(arr, processors);
+            choice = "parallelRadixSort";
+        } else {
+            radixSort(arr);
+            choice = "radixSort";
+        }
+        logChoice("long[]", n, profile, choice);
+    }
+
+    /**
+     * Sorts floats in the order of Arrays.sort(float[]) with the algorithm
+     * that fits the input best. Works like sort(int[]), except that there is
+     * no parallel path for floats, so anything longer than
+     * NETWORK_MAX_LENGTH and not already sorted or reversed is radix sorted.
+     *
+     * @param arr the array to be sorted
+     * @throws java.lang.IllegalArgumentException if the array is null
+     */
+    public static void sort(float[] arr) {
+        if (arr == null) {
+            throw new IllegalArgumentException("The array is null");
+        }
+        int n = arr.length;
+        if (n <= NETWORK_MAX_LENGTH) {
+            networkSort(arr, 0, n);
+            logChoice("float[]", n, null, "networkSort");
+            return;
+        }
+        InputProfile profile = new InputProfile(n, (i, j) -> Float.compare(arr[i], arr[j]));
+        String choice;
+        if (profile.isSorted()) {
+            choice = "none, already sorted";
+        } else if (profile.isReversed()) {
+            for (int i = 0, j = n - 1; i < j; i++, j--) {
+                float temp = arr[i];
+                arr[i] = arr[j];
+                arr[j] = temp;
+            }
+            choice = "reverse";
+        } else {
+            radixSort(arr);
+            choice = "radixSort";
+        }
+        logChoice("float[]", n, profile, choice);
+    }
+
+    /**
+     * Sorts doubles in the order of Arrays.sort(double[]) with the algorithm
+     * that fits the input best. Works like sort(float[]).
+     *
+     * @param arr the array to be sorted
+     * @throws java.lang.IllegalArgumentException if the array is null
+     */
+    public static void sort(double[] arr) {
+        if (arr == null) {
+            throw new IllegalArgumentException("The array is null");
+        }
+        int n = arr.length;
+        if (n <= NETWORK_MAX_LENGTH) {
+            networkSort(arr, 0, n);
+            logChoice("double[]", n, null, "networkSort");
+            return;
+        }
+        InputProfile profile = new InputProfile(n, (i, j) -> Double.compare(arr[i], arr[j]));
+        String choice;
+        if (profile.isSorted()) {
+            choice = "none, already sorted";
+        } else if (profile.isReversed()) {
+            for (int i = 0, j = n - 1; i < j; i++, j--) {
+                double temp = arr[i];
+                arr[i] = arr[j];
+                arr[j] = temp;
+            }
+            choice = "reverse";
+        } else {
+            radixSort(arr);
+            choice = "radixSort";
+        }
+        logChoice("double[]", n, profile, choice);
+    }
+
+    /**
+     * Sorts Strings in the order of String.compareTo with the algorithm that
+     * fits the input best.
+     *
+     * Arrays of at most INSERTION_SORT_THRESHOLD elements go to
+     * insertionSort. For longer ones, the input is sampled like in
+     * sort(int[]), and SAMPLE_SIZE evenly spaced elements are also sorted to
+     * estimate the fraction of duplicates. An already sorted array is left
+     * alone. The number of runs naturalMergeSort would find is estimated
+     * from the sampled pairs that go against the main direction of the
+     * array. If the runs average at least PRESORTED_RUN_LENGTH elements, the
+     * input goes to naturalMergeSort, which takes O(n log r) for r runs.
+     * Duplicate-heavy input goes to introSort, whose three-way partition
+     * sets equal keys aside at once, where an MSD sort would read every
+     * duplicate to its end. Anything else is sorted by americanFlagSort, in
+     * parallel on the common ForkJoinPool above PARALLEL_THRESHOLD elements
+     * when there is more than one processor. The choice is logged like in
+     * sort(int[]).
+     *
+     * @param arr the array to be sorted
+     * @throws java.lang.IllegalArgumentException if the array or any element in
+     *                                            it is null
+     */
+    public static void sort(String[] arr) {
+        checkKeys(arr);
+        int n = arr.length;
+        Comparator<String> comparator = Comparator.naturalOrder();
+        if (n <= INSERTION_SORT_THRESHOLD) {
+            insertionSort(arr, comparator);
+            logChoice("String[]", n, null, "insertionSort");
+            return;
+        }
+        InputProfile profile = new InputProfile(n, (i, j) -> arr[i].compareTo(arr[j]));
+        int processors = Runtime.getRuntime().availableProcessors();
+        String choice;
+        if (profile.isSorted()) {
+            choice = "none, already sorted";
+        } else if (profile.isPresorted()) {
+            naturalMergeSort(arr, comparator);
+            choice = "naturalMergeSort";
+        } else if (profile.duplicateRatio() >= DUPLICATE_RATIO) {
+            introSort(arr, comparator);
+            choice = "introSort";
+        } else if (n > PARALLEL_THRESHOLD && processors > 1) {
+            parallelMsdSort(arr, STRING_DIGITS, comparator, ForkJoinPool.commonPool());
+            choice = "parallelAmericanFlagSort";
+        } else {
+            americanFlagSort(arr);
+            choice = "americanFlagSort";
+        }
+        logChoice("String[]", n, profile, choice);
+    }
+
+    /**
+     * Sorts with a Comparator using the algorithm that fits the input best.
+     * The sort is always stable.
+     *
+     * Arrays of at most INSERTION_SORT_THRESHOLD elements go to
+     * insertionSort. For longer ones, the input is sampled like in
+     * sort(String[]). An already sorted array is left alone. Input with few
+     * enough estimated runs goes to naturalMergeSort, like in sort(String[]).
+     * Other input of at least PARALLEL_MERGE_THRESHOLD elements goes to
+     * parallelMergeSort on the common ForkJoinPool when there is more than
+     * one processor, and everything else to naturalMergeSort. The choice is
+     * logged like in sort(int[]).
+     *
+     * @param <T>        data type to sort
+     * @param arr        the array to be sorted
+     * @param comparator the Comparator used to compare the data in arr
+     * @throws java.lang.IllegalArgumentException if the array or comparator is
+     *                                            null
+     */
+    public static <T> void sort(T[] arr, Comparator<T> comparator) {
+        if (arr == null) {
+            throw new IllegalArgumentException("Cannot sort null array");
+        }
+        if (comparator == null) {
+            throw new IllegalArgumentException("Cannot sort with null comparator");
+        }
+        int n = arr.length;
+        if (n <= INSERTION_SORT_THRESHOLD) {
+            insertionSort(arr, comparator);
+            logChoice("T[]", n, null, "insertionSort");
+            return;
+        }
+        InputProfile profile = new InputProfile(n, (i, j) -> comparator.compare(arr[i], arr[j]));
+        int processors = Runtime.getRuntime().availableProcessors();
+        String choice;
+        if (profile.isSorted()) {
+            choice = "none, already sorted";
+        } else if (profile.isPresorted()) {
+            naturalMergeSort(arr, comparator);
+            choice = "naturalMergeSort";
+        } else if (n >= PARALLEL_MERGE_THRESHOLD && processors > 1) {
+            parallelMergeSort(arr, SortStats.counting(comparator), ForkJoinPool.commonPool());
+            choice = "parallelMergeSort";
+        } else {
+            naturalMergeSort(arr, comparator);
+            choice = "naturalMergeSort";
+        }
+        logChoice("T[]", n, profile, choice);
+    }
+
+    /**
+     * Logs the choice of a sort dispatcher.
+     *
+     * @param type the type of array sorted
+     * @param n the length of the array
+     * @param profile the sample of the input, or null if none was taken
+     * @param choice the algorithm chosen
+     */
+    private static void logChoice(String type, int n, InputProfile profile, String choice) {
+        LOGGER.fine(() -> "sort(" + type + ") n=" + n + (profile == null ? "" : " " + profile) + " -> " + choice);
+    }
+
+    /**
+     * Compares the elements at two indexes of the array being profiled.
+     */
+    private interface IndexComparator {
+
+        /**
+         * Compares the elements at i and j.
+         *
+         * @param i the first index
+         * @param j the second index
+         * @return negative, zero or positive as the element at i is less than,
+         * equal to or greater than the element at j
+         */
+        int compare(int i, int j);
+    }
+
+    /**
+     * A sample of the order of an array, taken by the sort dispatchers.
+     */
+    private static final class InputProfile {
+        private final int n;
+        private final IndexComparator comparator;
+        private final int samples;
+        private final int descents;
+        private final int ascents;
+        private double duplicateRatio = -1;
+
+        /**
+         * Compares SAMPLE_SIZE evenly spaced adjacent pairs, or all of them
+         * for short arrays.
+         * @param n the length of the array
+         * @param comparator compares the elements of the array
+         */
+        InputProfile(int n, IndexComparator comparator) {
+            this.n = n;
+            this.comparator = comparator;
+            int pairs = Math.max(n - 1, 0);
+            int count = Math.min(SAMPLE_SIZE, pairs);
+            int down = 0;
+            int up = 0;
+            for (int k = 0; k < count; k++) {
+                int i = (int) ((long) k * pairs / count);
+                int cmp = comparator.compare(i, i + 1);
+                if (cmp > 0) {
+                    down++;
+                } else if (cmp < 0) {
+                    up++;
+                }
+            }
+            this.samples = count;
+            this.descents = down;
+            this.ascents = up;
+        }
+
+        /**
+         * Returns the fraction of sampled pairs that descend.
+         * @return the descent ratio
+         */
+        double descentRatio() {
+            return samples == 0 ? 0 : (double) descents / samples;
+        }
+
+        /**
+         * Returns the fraction of sampled pairs that ascend.
+         * @return the ascent ratio
+         */
+        double ascentRatio() {
+            return samples == 0 ? 0 : (double) ascents / samples;
+        }
+
+        /**
+         * Returns whether the array is sorted, scanning it all if no sampled
+         * pair descends.
+         * @return true if the array is sorted
+         */
+        boolean isSorted() {
+            if (descents > 0) {
+                return false;
+            }
+            for (int i = 0; i + 1 < n; i++) {
+                if (comparator.compare(i, i + 1) > 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Returns whether the array is in descending order, scanning it all
+         * if every sampled pair descends.
+         * @return true if reversing the array sorts it
+         */
+        boolean isReversed() {
+            if (samples == 0 || descents < samples) {
+                return false;
+            }
+            for (int i = 0; i + 1 < n; i++) {
+                if (comparator.compare(i, i + 1) < 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Estimates the fraction of duplicates by sorting SAMPLE_SIZE evenly
+         * spaced elements and counting those equal to their predecessor.
+         * @return the duplicate ratio
+         */
+        double duplicateRatio() {
+            if (duplicateRatio < 0) {
+                int count = Math.min(SAMPLE_SIZE, n);
+                Integer[] sample = new Integer[count];
+                for (int k = 0; k < count; k++) {
+                    sample[k] = (int) ((long) k * n / count);
+                }
+                naturalMergeSort(sample, comparator::compare);
+                int equal = 0;
+                for (int k = 1; k < count; k++) {
+                    if (comparator.compare(sample[k - 1], sample[k]) == 0) {
+                        equal++;
+                    }
+                }
+                duplicateRatio = count < 2 ? 0 : (double) equal / (count - 1);
+            }
+            return duplicateRatio;
+        }
+
+        /**
+         * Estimates the number of runs naturalMergeSort would find, from how
+         * often the sampled pairs go against the main direction of the array.
+         * @return the estimated run count
+         */
+        long estimatedRuns() {
+            return 1 + Math.round(Math.min(descentRatio(), ascentRatio()) * Math.max(n - 1, 0));
+        }
+
+        /**
+         * Returns whether the estimated runs average at least
+         * PRESORTED_RUN_LENGTH elements, so that naturalMergeSort is close
+         * to O(n).
+         * @return true if the array looks nearly sorted or nearly reversed
+         */
+        boolean isPresorted() {
+            return estimatedRuns() * PRESORTED_RUN_LENGTH <= n;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("descents=%.3f ascents=%.3f runs~%d%s", descentRatio(), ascentRatio(),
+                    estimatedRuns(), duplicateRatio < 0 ? "" : String.format(" duplicates=%.3f", duplicateRatio));
+        }
+    }
 }
@@ -0,0 +1,123 @@
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Compares the sequential and parallel radix sorts on random int[] and long[]
+ * arrays and prints the time of each and the speedup.
+ *
+ * Compile and run it together with Sorting, for example:
+ *
+ * javac -d out Algorithms/SortingAlgorithm/*.java
+ * java -Xmx16g -cp out SortingBenchmark [length] [threads]
+ *
+ * An array of 10^9 ints takes 4 GB, and the radix sorts need a scratch
+ * array of the same size, so give the JVM enough heap. Every round sorts a
+ * fresh copy of the same random data, and the fastest measured round is
+ * reported.
+ */
+public class SortingBenchmark {
+
+    private static final int WARMUP_ROUNDS = 2;
+    private static final int MEASURED_ROUNDS = 5;
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args optional array length and number of threads, defaulting to
+     *             100000000 and the number of available processors
+     */
+    public static void main(String[] args) {
+        int length = args.length > 0 ? Integer.parseInt(args[0]) : 100_000_000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        Random rand = new Random(42);
+
+        System.out.printf("%d elements, %d threads%n", length, threads);
+        System.out.printf("%-6s %16s %16s %10s%n", "type", "sequential (ms)", "parallel (ms)", "speedup");
+
+        int[] ints = new int[length];
+        for (int i = 0; i < length; i++) {
+            ints[i] = rand.nextInt();
+        }
+        int[] intWork = new int[length];
+        double intSequential = best(() -> {
+            System.arraycopy(ints, 0, intWork, 0, length);
+            return timed(() -> Sorting.radixSort(intWork));
+        });
+        double intParallel = best(() -> {
+            System.arraycopy(ints, 0, intWork, 0, length);
+            return timed(() -> Sorting.parallelRadixSort(intWork, threads));
+        });
+        report("int", intSequential, intParallel);
+
+        long[] longs = new long[length];
+        for (int i = 0; i < length; i++) {
+            longs[i] = rand.nextLong();
+        }
+        long[] longWork = new long[length];
+        double longSequential = best(() -> {
+            System.arraycopy(longs, 0, longWork, 0, length);
+            return timed(() -> Sorting.radixSort(longWork));
+        });
+        double longParallel = best(() -> {
+            System.arraycopy(longs, 0, longWork, 0, length);
+            return timed(() -> Sorting.parallelRadixSort(longWork, threads));
+        });
+        report("long", longSequential, longParallel);
+
+        Arrays.sort(longs);
+        if (!Arrays.equals(longs, longWork)) {
+            System.out.println("parallel result differs from Arrays.sort");
+        }
+    }
+
+    /**
+     * A single measured round of the benchmark.
+     */
+    private interface Round {
+
+        /**
+         * Prepares the input, sorts it and returns the time taken.
+         *
+         * @return the time taken by the sort in milliseconds
+         */
+        double run();
+    }
+
+    /**
+     * Runs a round WARMUP_ROUNDS times unmeasured, then MEASURED_ROUNDS
+     * times measured.
+     * @param round the round to run
+     * @return the fastest measured time in milliseconds
+     */
+    private static double best(Round round) {
+        double best = Double.MAX_VALUE;
+        for (int i = 0; i < WARMUP_ROUNDS + MEASURED_ROUNDS; i++) {
+            double time = round.run();
+            if (i >= WARMUP_ROUNDS) {
+                best = Math.min(best, time);
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Times a sort.
+     * @param sort the sort to run
+     * @return the time taken in milliseconds
+     */
+    private static double timed(Runnable sort) {
+        long start = System.nanoTime();
+        sort.run();
+        return (System.nanoTime() - start) / 1e6;
+    }
+
+    /**
+     * Prints one row of the results.
+     * @param type the element type
+     * @param sequential the time of the sequential sort
+     * @param parallel the time of the parallel sort
+     */
+    private static void report(String type, double sequential, double parallel) {
+        System.out.printf("%-6s %16.1f %16.1f %9.2fx%n", type, sequential, parallel, sequential / parallel);
+    }
+}
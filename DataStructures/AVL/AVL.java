@@ -1,7 +1,17 @@
+import java.util.ArrayDeque;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
 
-public class AVL<T extends Comparable<? super T>> {
+public class AVL<T extends Comparable<? super T>> implements Iterable<T> {
 
     private AVLNode<T> root;
     private int size;
@@ -37,6 +47,86 @@ public class AVL<T extends Comparable<? super T>> {
         }
     }
 
+    /**
+     * Builds a perfectly balanced AVL from the data in the Collection.
+     *
+     * If the data is already in strictly increasing order, the tree is built
+     * directly in O(n) without any rotations. Otherwise, the data is sorted
+     * first (O(n log n)) and duplicates are dropped.
+     *
+     * @param <T>  the type of data in the tree
+     * @param data the data to load
+     * @return a new AVL holding the data
+     * @throws java.lang.IllegalArgumentException if data or any element in data
+     *                                            is null
+     */
+    public static <T extends Comparable<? super T>> AVL<T> bulkLoad(Collection<T> data) {
+        T[] arr = toSortedArray(data);
+        AVL<T> tree = new AVL<>();
+        tree.root = tree.buildHelper(arr, 0, arr.length - 1);
+        tree.size = arr.length;
+        return tree;
+    }
+
+    /**
+     * Copies the data into an array sorted in strictly increasing order.
+     * Input that is already strictly increasing is copied in O(n); anything
+     * else is sorted and deduplicated in O(n log n).
+     * @param <T> the type of data
+     * @param data the data to copy
+     * @return the sorted data without duplicates
+     * @throws java.lang.IllegalArgumentException if data or any element in data
+     *                                            is null
+     */
+    private static <T extends Comparable<? super T>> T[] toSortedArray(Collection<T> data) {
+        if (data == null) {
+            throw new IllegalArgumentException("data cannot be null");
+        }
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        T[] arr = (T[]) data.toArray(new Comparable[0]);
+        boolean sorted = true;
+        for (int i = 0; i < arr.length; i++) {
+            if (arr[i] == null) {
+                throw new IllegalArgumentException("any element in data cannot be null");
+            }
+            if (i > 0 && arr[i - 1].compareTo(arr[i]) >= 0) {
+                sorted = false;
+            }
+        }
+        if (sorted) {
+            return arr;
+        }
+        Arrays.sort(arr);
+        int length = 0;
+        for (int i = 0; i < arr.length; i++) {
+            if (length == 0 || arr[length - 1].compareTo(arr[i]) != 0) {
+                arr[length] = arr[i];
+                length++;
+            }
+        }
+        return Arrays.copyOf(arr, length);
+    }
+
+    /**
+     * Helper method for bulkLoad. Uses the middle element as the root so
+     * both subtrees differ in size by at most one.
+     * @param arr sorted data without duplicates
+     * @param left the left index, inclusive
+     * @param right the right index, inclusive
+     * @return the root of the balanced subtree
+     */
+    private AVLNode<T> buildHelper(T[] arr, int left, int right) {
+        if (left > right) {
+            return null;
+        }
+        int mid = (left + right) >>> 1;
+        AVLNode<T> curNode = new AVLNode<>(arr[mid]);
+        curNode.setLeft(buildHelper(arr, left, mid - 1));
+        curNode.setRight(buildHelper(arr, mid + 1, right));
+        update(curNode);
+        return curNode;
+    }
+
     /**
      * Adds the element to the tree.
      *
@@ -81,20 +171,26 @@ public class AVL<T extends Comparable<? super T>> {
     }
 
     /**
-     * method for the update
+     * method for the update. Recomputes height, balance factor and subtree
+     * size from the children, so rotations keep all three correct.
      * @param curNode current node
      */
     private void update(AVLNode<T> curNode) {
         int lHeight = -1;
         int rHeight = -1;
+        int lSize = 0;
+        int rSize = 0;
         if (curNode.getLeft() != null) {
             lHeight = curNode.getLeft().getHeight();
+            lSize = curNode.getLeft().getSize();
         }
         if (curNode.getRight() != null) {
             rHeight = curNode.getRight().getHeight();
+            rSize = curNode.getRight().getSize();
         }
         curNode.setHeight(Math.max(lHeight, rHeight) + 1);
         curNode.setBalanceFactor(lHeight - rHeight);
+        curNode.setSize(lSize + rSize + 1);
     }
 
     /**
@@ -354,6 +450,8 @@ public class AVL<T extends Comparable<? super T>> {
      *
      * This should NOT be used in the remove method.
      *
+     * Must be O(log n): the tree is descended once from the root.
+     *
      * Ex:
      * Given the following AVL composed of Integers
      *     76
@@ -374,42 +472,681 @@ public class AVL<T extends Comparable<? super T>> {
         if (data == null) {
             throw new IllegalArgumentException("Cannot find predecessor with null data");
         }
-        AVLNode<T> curNode = new AVLNode<>(data);
-        findPredecessor(root, curNode);
+        return predecessorHelper(root, data, null);
+    }
 
-        if (curNode.getLeft() == null) {
+    /**
+     * Helper method for predecessor. Descends once from the root, remembering
+     * the last node where the search went right.
+     * @param curNode current node
+     * @param data the data to find the predecessor of
+     * @param ancestor lowest ancestor so far whose data is smaller than data
+     * @return the predecessor of data, or null if there is none
+     */
+    private T predecessorHelper(AVLNode<T> curNode, T data, AVLNode<T> ancestor) {
+        if (curNode == null) {
             throw new NoSuchElementException("The data is not in the tree");
+        } else if (data.compareTo(curNode.getData()) < 0) {
+            return predecessorHelper(curNode.getLeft(), data, ancestor);
+        } else if (data.compareTo(curNode.getData()) > 0) {
+            return predecessorHelper(curNode.getRight(), data, curNode);
+        } else if (curNode.getLeft() != null) {
+            return lastNode(curNode.getLeft()).getData();
+        } else if (ancestor != null) {
+            return ancestor.getData();
         }
-        if (curNode.getRight() == null) {
-            return null;
+        return null;
+    }
+
+    /**
+     * Returns the greatest data in the tree less than or equal to the given
+     * data.
+     *
+     * Must be O(log n).
+     *
+     * @param data the data to search for
+     * @return the greatest data less than or equal to data, or null if there
+     * is no such data
+     * @throws java.lang.IllegalArgumentException if data is null
+     */
+    public T floor(T data) {
+        if (data == null) {
+            throw new IllegalArgumentException("data is null");
+        }
+        return dataOf(floorHelper(root, data, true, null));
+    }
+
+    /**
+     * Returns the greatest data in the tree strictly less than the given data.
+     *
+     * Unlike predecessor, data does not need to be in the tree.
+     *
+     * Must be O(log n).
+     *
+     * @param data the data to search for
+     * @return the greatest data less than data, or null if there is no such
+     * data
+     * @throws java.lang.IllegalArgumentException if data is null
+     */
+    public T lower(T data) {
+        if (data == null) {
+            throw new IllegalArgumentException("data is null");
+        }
+        return dataOf(floorHelper(root, data, false, null));
+    }
+
+    /**
+     * Returns the least data in the tree greater than or equal to the given
+     * data.
+     *
+     * Must be O(log n).
+     *
+     * @param data the data to search for
+     * @return the least data greater than or equal to data, or null if there
+     * is no such data
+     * @throws java.lang.IllegalArgumentException if data is null
+     */
+    public T ceiling(T data) {
+        if (data == null) {
+            throw new IllegalArgumentException("data is null");
+        }
+        return dataOf(ceilingHelper(root, data, true, null));
+    }
+
+    /**
+     * Returns the least data in the tree strictly greater than the given data.
+     *
+     * Must be O(log n).
+     *
+     * @param data the data to search for
+     * @return the least data greater than data, or null if there is no such
+     * data
+     * @throws java.lang.IllegalArgumentException if data is null
+     */
+    public T higher(T data) {
+        if (data == null) {
+            throw new IllegalArgumentException("data is null");
+        }
+        return dataOf(ceilingHelper(root, data, false, null));
+    }
+
+    /**
+     * Helper method for floor and lower
+     * @param curNode current node
+     * @param data the data to search for
+     * @param inclusive whether data itself is an acceptable answer
+     * @param best best candidate found so far
+     * @return the node holding the floor (or lower) of data, or null
+     */
+    private AVLNode<T> floorHelper(AVLNode<T> curNode, T data, boolean inclusive, AVLNode<T> best) {
+        if (curNode == null) {
+            return best;
+        }
+        int cmp = data.compareTo(curNode.getData());
+        if (cmp == 0 && inclusive) {
+            return curNode;
+        } else if (cmp > 0) {
+            return floorHelper(curNode.getRight(), data, inclusive, curNode);
         } else {
-            return curNode.getRight().getData();
+            return floorHelper(curNode.getLeft(), data, inclusive, best);
         }
     }
 
     /**
-     * method for finding predecessor
+     * Helper method for ceiling and higher
      * @param curNode current node
-     * @param dummy node that is used to find predecessor
+     * @param data the data to search for
+     * @param inclusive whether data itself is an acceptable answer
+     * @param best best candidate found so far
+     * @return the node holding the ceiling (or higher) of data, or null
      */
-    private void findPredecessor(AVLNode<T> curNode, AVLNode<T> dummy) {
+    private AVLNode<T> ceilingHelper(AVLNode<T> curNode, T data, boolean inclusive, AVLNode<T> best) {
         if (curNode == null) {
-            return;
+            return best;
+        }
+        int cmp = data.compareTo(curNode.getData());
+        if (cmp == 0 && inclusive) {
+            return curNode;
+        } else if (cmp < 0) {
+            return ceilingHelper(curNode.getLeft(), data, inclusive, curNode);
+        } else {
+            return ceilingHelper(curNode.getRight(), data, inclusive, best);
+        }
+    }
+
+    /**
+     * Returns the smallest data in the tree.
+     *
+     * Must be O(log n).
+     *
+     * @return the smallest data in the tree
+     * @throws java.util.NoSuchElementException if the tree is empty
+     */
+    public T first() {
+        if (root == null) {
+            throw new NoSuchElementException("The tree is empty");
+        }
+        AVLNode<T> curNode = root;
+        while (curNode.getLeft() != null) {
+            curNode = curNode.getLeft();
+        }
+        return curNode.getData();
+    }
+
+    /**
+     * Returns the largest data in the tree.
+     *
+     * Must be O(log n).
+     *
+     * @return the largest data in the tree
+     * @throws java.util.NoSuchElementException if the tree is empty
+     */
+    public T last() {
+        if (root == null) {
+            throw new NoSuchElementException("The tree is empty");
+        }
+        return lastNode(root).getData();
+    }
+
+    /**
+     * Returns the rightmost node of a non-empty subtree.
+     * @param curNode root of the subtree
+     * @return the node with the largest data in the subtree
+     */
+    private AVLNode<T> lastNode(AVLNode<T> curNode) {
+        while (curNode.getRight() != null) {
+            curNode = curNode.getRight();
+        }
+        return curNode;
+    }
+
+    /**
+     * Returns the data of a node, or null if the node is null.
+     * @param curNode the node
+     * @return the node's data or null
+     */
+    private T dataOf(AVLNode<T> curNode) {
+        return curNode == null ? null : curNode.getData();
+    }
+
+    /**
+     * Returns the k-th smallest data in the tree, counting from 0.
+     *
+     * Uses the subtree sizes stored in each node, so it must be O(log n).
+     *
+     * @param k the index of the data in sorted order
+     * @return the data with exactly k smaller data in the tree
+     * @throws java.lang.IndexOutOfBoundsException if k < 0 or k >= size
+     */
+    public T select(int k) {
+        if (k < 0 || k >= size) {
+            throw new IndexOutOfBoundsException("k must be between 0 and size - 1");
+        }
+        return selectHelper(root, k);
+    }
+
+    /**
+     * Helper method for select
+     * @param curNode current node
+     * @param k index of the data within the subtree of curNode
+     * @return the k-th smallest data of the subtree
+     */
+    private T selectHelper(AVLNode<T> curNode, int k) {
+        int lSize = sizeOf(curNode.getLeft());
+        if (k < lSize) {
+            return selectHelper(curNode.getLeft(), k);
+        } else if (k > lSize) {
+            return selectHelper(curNode.getRight(), k - lSize - 1);
+        }
+        return curNode.getData();
+    }
+
+    /**
+     * Returns the number of data in the tree strictly less than the given
+     * data. The data does not need to be in the tree.
+     *
+     * Must be O(log n).
+     *
+     * @param data the data to rank
+     * @return the number of data less than data
+     * @throws java.lang.IllegalArgumentException if data is null
+     */
+    public int rank(T data) {
+        if (data == null) {
+            throw new IllegalArgumentException("data is null");
+        }
+        return rankHelper(root, data, false);
+    }
+
+    /**
+     * Returns the number of data in the tree between lo and hi, inclusive of
+     * both.
+     *
+     * Must be O(log n).
+     *
+     * @param lo the lower bound, inclusive
+     * @param hi the upper bound, inclusive
+     * @return the number of data in [lo, hi]
+     * @throws java.lang.IllegalArgumentException if lo or hi is null, or if lo
+     *                                            is greater than hi
+     */
+    public int countInRange(T lo, T hi) {
+        if (lo == null || hi == null) {
+            throw new IllegalArgumentException("Range bounds cannot be null");
+        }
+        if (lo.compareTo(hi) > 0) {
+            throw new IllegalArgumentException("lo is greater than hi");
+        }
+        return rankHelper(root, hi, true) - rankHelper(root, lo, false);
+    }
+
+    /**
+     * Helper method for rank and countInRange
+     * @param curNode current node
+     * @param data the data to rank
+     * @param inclusive whether data equal to the parameter is counted
+     * @return the number of data in the subtree less than (or equal to) data
+     */
+    private int rankHelper(AVLNode<T> curNode, T data, boolean inclusive) {
+        if (curNode == null) {
+            return 0;
+        }
+        int cmp = data.compareTo(curNode.getData());
+        if (cmp < 0 || (cmp == 0 && !inclusive)) {
+            return rankHelper(curNode.getLeft(), data, inclusive);
+        }
+        return sizeOf(curNode.getLeft()) + 1 + rankHelper(curNode.getRight(), data, inclusive);
+    }
+
+    /**
+     * Returns the subtree size of a node, or 0 if the node is null.
+     * @param curNode the node
+     * @return the size of the subtree rooted at curNode
+     */
+    private int sizeOf(AVLNode<T> curNode) {
+        return curNode == null ? 0 : curNode.getSize();
+    }
+
+    /**
+     * Removes all data greater than or equal to the given data from this tree
+     * and returns them as a new AVL.
+     *
+     * Must be O(log n). The data does not need to be in the tree.
+     *
+     * @param data the data to split at
+     * @return a new AVL holding every data greater than or equal to data
+     * @throws java.lang.IllegalArgumentException if data is null
+     */
+    public AVL<T> split(T data) {
+        if (data == null) {
+            throw new IllegalArgumentException("data is null");
         }
-        findPredecessor(curNode.getRight(), dummy);
-        if (dummy.getRight() != null) {
+        AVLNode<T> dummy = new AVLNode<>(null);
+        splitHelper(root, data, dummy);
+        AVL<T> upper = new AVL<>();
+        upper.root = dummy.getRight();
+        upper.size = sizeOf(upper.root);
+        root = dummy.getLeft();
+        size = sizeOf(root);
+        return upper;
+    }
+
+    /**
+     * Helper method for split
+     * @param curNode current node
+     * @param data the data to split at
+     * @param dummy dummy place for the results; its left child receives the
+     *              data less than data and its right child the rest
+     */
+    private void splitHelper(AVLNode<T> curNode, T data, AVLNode<T> dummy) {
+        if (curNode == null) {
+            dummy.setLeft(null);
+            dummy.setRight(null);
+        } else if (data.compareTo(curNode.getData()) <= 0) {
+            AVLNode<T> right = curNode.getRight();
+            splitHelper(curNode.getLeft(), data, dummy);
+            dummy.setRight(joinHelper(dummy.getRight(), curNode, right));
+        } else {
+            AVLNode<T> left = curNode.getLeft();
+            splitHelper(curNode.getRight(), data, dummy);
+            dummy.setLeft(joinHelper(left, curNode, dummy.getLeft()));
+        }
+    }
+
+    /**
+     * Moves all data of the other tree into this tree, leaving the other tree
+     * empty. Every data in the other tree must be greater than every data in
+     * this tree.
+     *
+     * Must be O(log n).
+     *
+     * @param other the tree to join onto the right of this tree
+     * @throws java.lang.IllegalArgumentException if other is null or this
+     *                                            tree, or if the data of the
+     *                                            two trees overlap
+     */
+    public void join(AVL<T> other) {
+        if (other == null || other == this) {
+            throw new IllegalArgumentException("Cannot join null or the same tree");
+        }
+        if (other.root == null) {
             return;
         }
-        if (curNode.getData().equals(dummy.getData())) {
-            dummy.setLeft(curNode);
-        } else if (curNode.getData().compareTo(dummy.getData()) < 0) {
-            if (dummy.getLeft() == null) {
-                throw new NoSuchElementException("data is not in the tree");
+        if (root != null && last().compareTo(other.first()) >= 0) {
+            throw new IllegalArgumentException("other must only hold data greater than this tree");
+        }
+        T mid = other.first();
+        other.remove(mid);
+        root = joinHelper(root, new AVLNode<>(mid), other.root);
+        size = sizeOf(root);
+        other.clear();
+    }
+
+    /**
+     * Adds all of the data in the Collection to the tree. Data already in the
+     * tree is skipped, as in add.
+     *
+     * The batch is turned into a balanced tree and merged with this tree by a
+     * single recursive union that splits this tree at each batch root and
+     * joins the halves back together, so rebalancing is shared across the
+     * whole batch instead of repeated per element. Sorted input is used as
+     * is; other input is sorted first.
+     *
+     * Must be O(k log(n / k + 1)) for k sorted data.
+     *
+     * @param data the data to add
+     * @throws java.lang.IllegalArgumentException if data or any element in data
+     *                                            is null
+     */
+    public void addAll(Collection<T> data) {
+        T[] arr = toSortedArray(data);
+        root = unionHelper(root, buildHelper(arr, 0, arr.length - 1));
+        size = sizeOf(root);
+    }
+
+    /**
+     * Helper method for addAll
+     * @param curNode root of a subtree of this tree
+     * @param batch root of a subtree of the batch
+     * @return the root of the union of both subtrees
+     */
+    private AVLNode<T> unionHelper(AVLNode<T> curNode, AVLNode<T> batch) {
+        if (curNode == null) {
+            return batch;
+        } else if (batch == null) {
+            return curNode;
+        }
+        AVLNode<T> dummy = new AVLNode<>(null);
+        splitExclusive(curNode, batch.getData(), dummy);
+        if (dummy.getData() != null) {
+            batch.setData(dummy.getData());
+        }
+        AVLNode<T> left = unionHelper(dummy.getLeft(), batch.getLeft());
+        AVLNode<T> right = unionHelper(dummy.getRight(), batch.getRight());
+        return joinHelper(left, batch, right);
+    }
+
+    /**
+     * Removes all of the data in the Collection from the tree. Data that is
+     * not in the tree is ignored.
+     *
+     * Like addAll, this splits the tree at each batch root and joins what is
+     * left, so the tree is walked once for the whole batch.
+     *
+     * Must be O(k log(n / k + 1)) for k sorted data.
+     *
+     * @param data the data to remove
+     * @return true if the tree changed
+     * @throws java.lang.IllegalArgumentException if data or any element in data
+     *                                            is null
+     */
+    public boolean removeAll(Collection<T> data) {
+        T[] arr = toSortedArray(data);
+        int oldSize = size;
+        root = differenceHelper(root, buildHelper(arr, 0, arr.length - 1));
+        size = sizeOf(root);
+        return size != oldSize;
+    }
+
+    /**
+     * Helper method for removeAll
+     * @param curNode root of a subtree of this tree
+     * @param batch root of a subtree of the batch
+     * @return the root of the subtree without the data of the batch
+     */
+    private AVLNode<T> differenceHelper(AVLNode<T> curNode, AVLNode<T> batch) {
+        if (curNode == null || batch == null) {
+            return curNode;
+        }
+        AVLNode<T> dummy = new AVLNode<>(null);
+        splitExclusive(curNode, batch.getData(), dummy);
+        AVLNode<T> left = differenceHelper(dummy.getLeft(), batch.getLeft());
+        AVLNode<T> right = differenceHelper(dummy.getRight(), batch.getRight());
+        if (left == null) {
+            return right;
+        } else if (right == null) {
+            return left;
+        }
+        AVLNode<T> dummy2 = new AVLNode<>(null);
+        right = removeSuccessor(right, dummy2);
+        return joinHelper(left, new AVLNode<>(dummy2.getData()), right);
+    }
+
+    /**
+     * Method for removing the leftmost node of a subtree
+     * @param curNode current node
+     * @param dummy2 dummy place for the removed data
+     * @return the root of the subtree after removing
+     */
+    private AVLNode<T> removeSuccessor(AVLNode<T> curNode, AVLNode<T> dummy2) {
+        if (curNode.getLeft() == null) {
+            dummy2.setData(curNode.getData());
+            return curNode.getRight();
+        }
+        curNode.setLeft(removeSuccessor(curNode.getLeft(), dummy2));
+        update(curNode);
+        return balancedTree(curNode);
+    }
+
+    /**
+     * Returns whether all of the data in the Collection is contained within
+     * the tree.
+     *
+     * The sorted batch is partitioned at every node on the way down, so each
+     * node is visited at most once however large the batch is.
+     *
+     * @param data the data to search for
+     * @return true if every element of data is in the tree
+     * @throws java.lang.IllegalArgumentException if data or any element in data
+     *                                            is null
+     */
+    public boolean containsAll(Collection<T> data) {
+        T[] arr = toSortedArray(data);
+        return containsAllHelper(root, arr, 0, arr.length);
+    }
+
+    /**
+     * Helper method for containsAll
+     * @param curNode current node
+     * @param arr the sorted batch
+     * @param lo first index of the batch that falls in this subtree
+     * @param hi index after the last one that falls in this subtree
+     * @return true if all of arr[lo..hi) is in the subtree
+     */
+    private boolean containsAllHelper(AVLNode<T> curNode, T[] arr, int lo, int hi) {
+        if (lo >= hi) {
+            return true;
+        } else if (curNode == null) {
+            return false;
+        }
+        int mid = lo;
+        int end = hi;
+        while (mid < end) {
+            int probe = (mid + end) >>> 1;
+            if (arr[probe].compareTo(curNode.getData()) < 0) {
+                mid = probe + 1;
+            } else {
+                end = probe;
             }
-            dummy.setRight(curNode);
+        }
+        int rightStart = mid;
+        if (mid < hi && arr[mid].compareTo(curNode.getData()) == 0) {
+            rightStart++;
+        }
+        return containsAllHelper(curNode.getLeft(), arr, lo, mid)
+                && containsAllHelper(curNode.getRight(), arr, rightStart, hi);
+    }
+
+    /**
+     * Splits a subtree into the data less than and greater than the given
+     * data, dropping the node equal to it.
+     * @param curNode current node
+     * @param data the data to split at
+     * @param dummy dummy place for the results; its left child receives the
+     *              smaller data, its right child the greater data, and its
+     *              data the stored data equal to data, if any
+     */
+    private void splitExclusive(AVLNode<T> curNode, T data, AVLNode<T> dummy) {
+        if (curNode == null) {
+            dummy.setLeft(null);
+            dummy.setRight(null);
             return;
         }
-        findPredecessor(curNode.getLeft(), dummy);
+        int cmp = data.compareTo(curNode.getData());
+        if (cmp < 0) {
+            AVLNode<T> right = curNode.getRight();
+            splitExclusive(curNode.getLeft(), data, dummy);
+            dummy.setRight(joinHelper(dummy.getRight(), curNode, right));
+        } else if (cmp > 0) {
+            AVLNode<T> left = curNode.getLeft();
+            splitExclusive(curNode.getRight(), data, dummy);
+            dummy.setLeft(joinHelper(left, curNode, dummy.getLeft()));
+        } else {
+            dummy.setData(curNode.getData());
+            dummy.setLeft(curNode.getLeft());
+            dummy.setRight(curNode.getRight());
+        }
+    }
+
+    /**
+     * Helper method for join and split. Joins two trees and a middle node,
+     * where all data in left is less than mid and all data in right is greater.
+     * Descends along the spine of the taller tree until the heights are
+     * within one, so it runs in O(|height(left) - height(right)| + 1).
+     * @param left the left tree
+     * @param mid the middle node, whose children are overwritten
+     * @param right the right tree
+     * @return the root of the joined tree
+     */
+    private AVLNode<T> joinHelper(AVLNode<T> left, AVLNode<T> mid, AVLNode<T> right) {
+        int lHeight = left == null ? -1 : left.getHeight();
+        int rHeight = right == null ? -1 : right.getHeight();
+        if (lHeight > rHeight + 1) {
+            left.setRight(joinHelper(left.getRight(), mid, right));
+            update(left);
+            return balancedTree(left);
+        } else if (rHeight > lHeight + 1) {
+            right.setLeft(joinHelper(left, mid, right.getLeft()));
+            update(right);
+            return balancedTree(right);
+        }
+        mid.setLeft(left);
+        mid.setRight(right);
+        update(mid);
+        return mid;
+    }
+
+    /**
+     * Returns an iterator over the data in the range [from, to) in sorted
+     * order.
+     *
+     * Must be O(log n + k), where k is the number of data returned. The tree
+     * should not be modified while the iterator is in use.
+     *
+     * @param from the lower bound, inclusive
+     * @param to   the upper bound, exclusive
+     * @return an iterator over the data in the range
+     * @throws java.lang.IllegalArgumentException if from or to is null, or if
+     *                                            from is greater than to
+     */
+    public Iterator<T> range(T from, T to) {
+        return range(from, true, to, false);
+    }
+
+    /**
+     * Returns an iterator over the data between from and to in sorted order.
+     *
+     * Must be O(log n + k), where k is the number of data returned. The tree
+     * should not be modified while the iterator is in use.
+     *
+     * @param from          the lower bound
+     * @param fromInclusive whether from itself is part of the range
+     * @param to            the upper bound
+     * @param toInclusive   whether to itself is part of the range
+     * @return an iterator over the data in the range
+     * @throws java.lang.IllegalArgumentException if from or to is null, or if
+     *                                            from is greater than to
+     */
+    public Iterator<T> range(T from, boolean fromInclusive, T to, boolean toInclusive) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Range bounds cannot be null");
+        }
+        if (from.compareTo(to) > 0) {
+            throw new IllegalArgumentException("from is greater than to");
+        }
+        return new RangeIterator(from, fromInclusive, to, toInclusive);
+    }
+
+    /**
+     * In-order iterator that starts at the lower bound of a range and stops
+     * once it passes the upper bound. The stack only holds the nodes on the
+     * search path for from whose data is inside the range.
+     */
+    private class RangeIterator implements Iterator<T> {
+        private final Deque<AVLNode<T>> stack = new ArrayDeque<>();
+        private final T to;
+        private final boolean toInclusive;
+
+        /**
+         * Seeds the stack with the path to the ceiling of from.
+         * @param from          the lower bound
+         * @param fromInclusive whether from is part of the range
+         * @param to            the upper bound
+         * @param toInclusive   whether to is part of the range
+         */
+        RangeIterator(T from, boolean fromInclusive, T to, boolean toInclusive) {
+            this.to = to;
+            this.toInclusive = toInclusive;
+            AVLNode<T> curNode = root;
+            while (curNode != null) {
+                int cmp = from.compareTo(curNode.getData());
+                if (cmp < 0 || (cmp == 0 && fromInclusive)) {
+                    stack.push(curNode);
+                    curNode = curNode.getLeft();
+                } else {
+                    curNode = curNode.getRight();
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (stack.isEmpty()) {
+                return false;
+            }
+            int cmp = stack.peek().getData().compareTo(to);
+            return cmp < 0 || (cmp == 0 && toInclusive);
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException("No more data in the range");
+            }
+            AVLNode<T> curNode = stack.pop();
+            pushLeft(stack, curNode.getRight());
+            return curNode.getData();
+        }
     }
 
     /**
@@ -467,6 +1204,362 @@ public class AVL<T extends Comparable<? super T>> {
         }
     }
 
+    /**
+     * Returns a lazy iterator over the pre-order traversal of the tree.
+     *
+     * No list is built and no recursion is used; the iterator keeps an
+     * explicit stack of at most O(log n) nodes, so callers may stop early
+     * without paying for the rest of the tree.
+     *
+     * The tree should not be modified while the iterator is in use.
+     *
+     * @return an iterator over the data in pre-order
+     */
+    public Iterator<T> preorderIterator() {
+        return new PreorderIterator();
+    }
+
+    /**
+     * Returns a lazy iterator over the in-order traversal of the tree.
+     *
+     * Uses an explicit stack of at most O(log n) nodes. The tree should not be
+     * modified while the iterator is in use.
+     *
+     * @return an iterator over the data in sorted order
+     */
+    public Iterator<T> inorderIterator() {
+        return Spliterators.iterator(inorderSpliterator());
+    }
+
+    /**
+     * Returns a lazy iterator over the post-order traversal of the tree.
+     *
+     * Uses an explicit stack of at most O(log n) nodes. The tree should not be
+     * modified while the iterator is in use.
+     *
+     * @return an iterator over the data in post-order
+     */
+    public Iterator<T> postorderIterator() {
+        return new PostorderIterator();
+    }
+
+    /**
+     * Returns a lazy iterator over the level-order traversal of the tree.
+     *
+     * Uses a queue holding at most one level of the tree. The tree should not
+     * be modified while the iterator is in use.
+     *
+     * @return an iterator over the data in level order
+     */
+    public Iterator<T> levelorderIterator() {
+        return new LevelorderIterator();
+    }
+
+    /**
+     * Returns the in-order iterator, so the tree can be used in for-each
+     * loops.
+     *
+     * @return an iterator over the data in sorted order
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return inorderIterator();
+    }
+
+    /**
+     * Returns a spliterator over the pre-order traversal of the tree.
+     *
+     * @return a sized, ordered spliterator over the data in pre-order
+     */
+    public Spliterator<T> preorderSpliterator() {
+        return traversalSpliterator(preorderIterator());
+    }
+
+    /**
+     * Returns a spliterator over the in-order traversal of the tree.
+     *
+     * The spliterator splits along subtrees instead of copying elements into
+     * batches, so parallel streams can work on disjoint parts of the tree
+     * directly.
+     *
+     * @return a sorted spliterator over the data in sorted order
+     */
+    public Spliterator<T> inorderSpliterator() {
+        return new InorderSpliterator(root, new ArrayDeque<>(), false, size, true);
+    }
+
+    /**
+     * Returns the in-order spliterator.
+     *
+     * @return a sorted spliterator over the data in sorted order
+     */
+    @Override
+    public Spliterator<T> spliterator() {
+        return inorderSpliterator();
+    }
+
+    /**
+     * Returns a spliterator over the post-order traversal of the tree.
+     *
+     * @return a sized, ordered spliterator over the data in post-order
+     */
+    public Spliterator<T> postorderSpliterator() {
+        return traversalSpliterator(postorderIterator());
+    }
+
+    /**
+     * Returns a spliterator over the level-order traversal of the tree.
+     *
+     * @return a sized, ordered spliterator over the data in level order
+     */
+    public Spliterator<T> levelorderSpliterator() {
+        return traversalSpliterator(levelorderIterator());
+    }
+
+    /**
+     * Wraps a traversal iterator in a sized, ordered spliterator.
+     * @param iterator the iterator over the traversal
+     * @return the spliterator
+     */
+    private Spliterator<T> traversalSpliterator(Iterator<T> iterator) {
+        return Spliterators.spliterator(iterator, size,
+                Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL);
+    }
+
+    /**
+     * Iterator for the pre-order traversal. The stack holds the roots of the
+     * subtrees that are still to be visited.
+     */
+    private class PreorderIterator implements Iterator<T> {
+        private final Deque<AVLNode<T>> stack = new ArrayDeque<>();
+
+        /**
+         * Starts the traversal at the root.
+         */
+        PreorderIterator() {
+            if (root != null) {
+                stack.push(root);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !stack.isEmpty();
+        }
+
+        @Override
+        public T next() {
+            if (stack.isEmpty()) {
+                throw new NoSuchElementException("No more data in the tree");
+            }
+            AVLNode<T> curNode = stack.pop();
+            if (curNode.getRight() != null) {
+                stack.push(curNode.getRight());
+            }
+            if (curNode.getLeft() != null) {
+                stack.push(curNode.getLeft());
+            }
+            return curNode.getData();
+        }
+    }
+
+    /**
+     * Iterator for the post-order traversal. The stack holds the path from
+     * the root to the next node to visit.
+     */
+    private class PostorderIterator implements Iterator<T> {
+        private final Deque<AVLNode<T>> stack = new ArrayDeque<>();
+
+        /**
+         * Starts the traversal at the first leaf in post-order.
+         */
+        PostorderIterator() {
+            pushLeaf(root);
+        }
+
+        /**
+         * Pushes the path from curNode down to the first node visited in its
+         * post-order, preferring left children over right children.
+         * @param curNode root of the subtree to descend
+         */
+        private void pushLeaf(AVLNode<T> curNode) {
+            while (curNode != null) {
+                stack.push(curNode);
+                if (curNode.getLeft() != null) {
+                    curNode = curNode.getLeft();
+                } else {
+                    curNode = curNode.getRight();
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !stack.isEmpty();
+        }
+
+        @Override
+        public T next() {
+            if (stack.isEmpty()) {
+                throw new NoSuchElementException("No more data in the tree");
+            }
+            AVLNode<T> curNode = stack.pop();
+            if (!stack.isEmpty() && stack.peek().getLeft() == curNode) {
+                pushLeaf(stack.peek().getRight());
+            }
+            return curNode.getData();
+        }
+    }
+
+    /**
+     * Iterator for the level-order traversal.
+     */
+    private class LevelorderIterator implements Iterator<T> {
+        private final Queue<AVLNode<T>> queue = new ArrayDeque<>();
+
+        /**
+         * Starts the traversal at the root.
+         */
+        LevelorderIterator() {
+            if (root != null) {
+                queue.add(root);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !queue.isEmpty();
+        }
+
+        @Override
+        public T next() {
+            if (queue.isEmpty()) {
+                throw new NoSuchElementException("No more data in the tree");
+            }
+            AVLNode<T> curNode = queue.poll();
+            if (curNode.getLeft() != null) {
+                queue.add(curNode.getLeft());
+            }
+            if (curNode.getRight() != null) {
+                queue.add(curNode.getRight());
+            }
+            return curNode.getData();
+        }
+    }
+
+    /**
+     * Spliterator for the in-order traversal that splits along subtrees.
+     *
+     * The remaining elements are, in order: the in-order traversal of
+     * pending, then for every node on the stack (top first) its data followed
+     * by its right subtree. If trimmed is set, the right subtree of the
+     * bottom node of the stack belongs to another spliterator and is skipped.
+     */
+    private class InorderSpliterator implements Spliterator<T> {
+        private AVLNode<T> pending;
+        private final Deque<AVLNode<T>> stack;
+        private boolean trimmed;
+        private long est;
+        private boolean sized;
+
+        /**
+         * Constructs a spliterator over the given state.
+         * @param pending subtree still to be traversed before the stack
+         * @param stack nodes to visit after pending, top first
+         * @param trimmed whether the bottom node's right subtree is excluded
+         * @param est estimated number of remaining elements
+         * @param sized whether est is exact
+         */
+        InorderSpliterator(AVLNode<T> pending, Deque<AVLNode<T>> stack,
+                           boolean trimmed, long est, boolean sized) {
+            this.pending = pending;
+            this.stack = stack;
+            this.trimmed = trimmed;
+            this.est = est;
+            this.sized = sized;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            Objects.requireNonNull(action);
+            if (pending != null) {
+                pushLeft(stack, pending);
+                pending = null;
+            }
+            if (stack.isEmpty()) {
+                return false;
+            }
+            AVLNode<T> curNode = stack.pop();
+            if (!stack.isEmpty() || !trimmed) {
+                pushLeft(stack, curNode.getRight());
+            }
+            if (est > 0) {
+                est--;
+            }
+            action.accept(curNode.getData());
+            return true;
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            InorderSpliterator prefix;
+            if (pending != null && pending.getLeft() != null) {
+                prefix = new InorderSpliterator(pending.getLeft(), new ArrayDeque<>(), false, est >>> 1, false);
+                stack.push(pending);
+                pending = null;
+            } else {
+                if (pending != null) {
+                    stack.push(pending);
+                    pending = null;
+                }
+                if (stack.size() >= 2) {
+                    AVLNode<T> bottom = stack.removeLast();
+                    Deque<AVLNode<T>> prefixStack = new ArrayDeque<>(stack);
+                    stack.clear();
+                    stack.push(bottom);
+                    prefix = new InorderSpliterator(null, prefixStack, false, est >>> 1, false);
+                } else if (stack.size() == 1 && !trimmed && stack.peek().getRight() != null) {
+                    pending = stack.peek().getRight();
+                    prefix = new InorderSpliterator(null, new ArrayDeque<>(stack), true, 1, false);
+                    stack.clear();
+                } else {
+                    return null;
+                }
+            }
+            est -= prefix.est;
+            sized = false;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return est;
+        }
+
+        @Override
+        public int characteristics() {
+            return (sized ? Spliterator.SIZED : 0) | Spliterator.ORDERED
+                    | Spliterator.SORTED | Spliterator.DISTINCT | Spliterator.NONNULL;
+        }
+
+        @Override
+        public Comparator<? super T> getComparator() {
+            return null;
+        }
+    }
+
+    /**
+     * Pushes curNode and its chain of left children onto the stack.
+     * @param stack stack to push onto
+     * @param curNode root of the subtree to descend
+     */
+    private void pushLeft(Deque<AVLNode<T>> stack, AVLNode<T> curNode) {
+        while (curNode != null) {
+            stack.push(curNode);
+            curNode = curNode.getLeft();
+        }
+    }
+
     /**
      * Returns the root of the tree.
      *
@@ -4,6 +4,7 @@ public class AVLNode<T extends Comparable<? super T>> {
     private AVLNode<T> right;
     private int height;
     private int balanceFactor;
+    private int size = 1;
 
     /**
      * Create an AVL node with the specified data.
@@ -103,7 +104,25 @@ public class AVLNode<T extends Comparable<? super T>> {
     public void setBalanceFactor(int balanceFactor) {
         this.balanceFactor = balanceFactor;
     }
-    
+
+    /**
+     * Get the number of nodes in the subtree rooted at this node.
+     *
+     * @return size of the subtree rooted at this node
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Set the number of nodes in the subtree rooted at this node.
+     *
+     * @param size size of the subtree rooted at this node
+     */
+    public void setSize(int size) {
+        this.size = size;
+    }
+
     @Override
     public String toString() {
         return String.format("Node containing %s (height %d, bf %d)",
@@ -0,0 +1,408 @@
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.NoSuchElementException;
+
+/**
+ * An AVL whose nodes live in parallel arrays instead of AVLNode objects.
+ *
+ * Each node is an int id. The data, left child, right child and height of
+ * node i are stored at index i of the data, left, right and height arrays,
+ * and NIL (-1) stands for a null child. Removed slots are chained into a
+ * free-list through the left array and reused by later adds, so the arrays
+ * only grow when every slot is in use.
+ *
+ * @param <T> the type of data in the tree
+ */
+public class ArrayAVL<T extends Comparable<? super T>> {
+
+    /**
+     * The initial capacity of the backing arrays.
+     */
+    public static final int INITIAL_CAPACITY = 16;
+
+    private static final int NIL = -1;
+
+    private T[] data;
+    private int[] left;
+    private int[] right;
+    private int[] height;
+    private int root = NIL;
+    private int freeHead = NIL;
+    private int next;
+    private int size;
+
+    /**
+     * Constructs a new, empty ArrayAVL.
+     */
+    public ArrayAVL() {
+        this(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Constructs a new, empty ArrayAVL with room for the given number of
+     * nodes before the backing arrays need to grow.
+     *
+     * @param capacity the initial capacity
+     * @throws java.lang.IllegalArgumentException if capacity is negative
+     */
+    public ArrayAVL(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("capacity cannot be negative");
+        }
+        data = newDataArray(capacity);
+        left = new int[capacity];
+        right = new int[capacity];
+        height = new int[capacity];
+    }
+
+    /**
+     * Constructs a new ArrayAVL with the data in the Collection, added in the
+     * same order it is in the Collection.
+     *
+     * @param data the data to add to the tree
+     * @throws java.lang.IllegalArgumentException if data or any element in data
+     *                                            is null
+     */
+    public ArrayAVL(Collection<T> data) {
+        this(data == null ? 0 : data.size());
+        if (data == null || data.contains(null)) {
+            throw new IllegalArgumentException("data or any element in data cannot be null");
+        }
+        for (T element : data) {
+            add(element);
+        }
+    }
+
+    /**
+     * Adds the element to the tree. If the data is already in the tree,
+     * nothing is done.
+     *
+     * Must be O(log n), amortized over any growth of the backing arrays.
+     *
+     * @param data the data to add
+     * @throws java.lang.IllegalArgumentException if data is null
+     */
+    public void add(T data) {
+        if (data == null) {
+            throw new IllegalArgumentException("data is null");
+        }
+        root = addHelper(root, data);
+    }
+
+    /**
+     * Helper method for add
+     * @param curNode current node id
+     * @param data data to add
+     * @return the id of the subtree root after adding
+     */
+    private int addHelper(int curNode, T data) {
+        if (curNode == NIL) {
+            size++;
+            return allocate(data);
+        }
+        int cmp = data.compareTo(this.data[curNode]);
+        // allocate() may replace the arrays, so the child must be computed
+        // before the array it is stored into is read.
+        if (cmp < 0) {
+            int child = addHelper(left[curNode], data);
+            left[curNode] = child;
+        } else if (cmp > 0) {
+            int child = addHelper(right[curNode], data);
+            right[curNode] = child;
+        } else {
+            return curNode;
+        }
+        update(curNode);
+        return balancedTree(curNode);
+    }
+
+    /**
+     * Removes and returns the element from the tree matching the given
+     * parameter. A node with two children is replaced by its predecessor, and
+     * the freed slot is pushed onto the free-list.
+     *
+     * Must be O(log n).
+     *
+     * @param data the data to remove
+     * @return the data that was removed
+     * @throws java.lang.IllegalArgumentException if data is null
+     * @throws java.util.NoSuchElementException   if the data is not found
+     */
+    public T remove(T data) {
+        if (data == null) {
+            throw new IllegalArgumentException("data is null");
+        }
+        int target = find(data);
+        if (target == NIL) {
+            throw new NoSuchElementException("The data is not in the tree");
+        }
+        T removed = this.data[target];
+        root = removeHelper(root, data);
+        size--;
+        return removed;
+    }
+
+    /**
+     * Helper method for remove
+     * @param curNode current node id
+     * @param data the data to remove, known to be in the tree
+     * @return the id of the subtree root after removing
+     */
+    private int removeHelper(int curNode, T data) {
+        int cmp = data.compareTo(this.data[curNode]);
+        if (cmp < 0) {
+            left[curNode] = removeHelper(left[curNode], data);
+        } else if (cmp > 0) {
+            right[curNode] = removeHelper(right[curNode], data);
+        } else if (left[curNode] == NIL || right[curNode] == NIL) {
+            int child = left[curNode] == NIL ? right[curNode] : left[curNode];
+            free(curNode);
+            return child;
+        } else {
+            int pred = left[curNode];
+            while (right[pred] != NIL) {
+                pred = right[pred];
+            }
+            this.data[curNode] = this.data[pred];
+            left[curNode] = removePredecessor(left[curNode]);
+        }
+        update(curNode);
+        return balancedTree(curNode);
+    }
+
+    /**
+     * Method for removing the rightmost node of a subtree
+     * @param curNode current node id
+     * @return the id of the subtree root after removing
+     */
+    private int removePredecessor(int curNode) {
+        if (right[curNode] == NIL) {
+            int child = left[curNode];
+            free(curNode);
+            return child;
+        }
+        right[curNode] = removePredecessor(right[curNode]);
+        update(curNode);
+        return balancedTree(curNode);
+    }
+
+    /**
+     * Returns the element from the tree matching the given parameter.
+     *
+     * Must be O(log n).
+     *
+     * @param data the data to search for in the tree
+     * @return the data in the tree equal to the parameter
+     * @throws java.lang.IllegalArgumentException if data is null
+     * @throws java.util.NoSuchElementException   if the data is not in the tree
+     */
+    public T get(T data) {
+        if (data == null) {
+            throw new IllegalArgumentException("data is null");
+        }
+        int target = find(data);
+        if (target == NIL) {
+            throw new NoSuchElementException("Data is not in the tree");
+        }
+        return this.data[target];
+    }
+
+    /**
+     * Returns whether or not data matching the given parameter is contained
+     * within the tree.
+     *
+     * Must be O(log n).
+     *
+     * @param data the data to search for in the tree
+     * @return true if the parameter is contained within the tree, false
+     * otherwise
+     * @throws java.lang.IllegalArgumentException if data is null
+     */
+    public boolean contains(T data) {
+        if (data == null) {
+            throw new IllegalArgumentException("data is null");
+        }
+        return find(data) != NIL;
+    }
+
+    /**
+     * Finds the id of the node holding the given data.
+     * @param data the data to search for
+     * @return the node id, or NIL if the data is not in the tree
+     */
+    private int find(T data) {
+        int curNode = root;
+        while (curNode != NIL) {
+            int cmp = data.compareTo(this.data[curNode]);
+            if (cmp < 0) {
+                curNode = left[curNode];
+            } else if (cmp > 0) {
+                curNode = right[curNode];
+            } else {
+                return curNode;
+            }
+        }
+        return NIL;
+    }
+
+    /**
+     * Takes a slot from the free-list, or the next unused slot, growing the
+     * arrays if needed.
+     * @param data the data to store in the new node
+     * @return the id of the new leaf
+     */
+    private int allocate(T data) {
+        int id;
+        if (freeHead != NIL) {
+            id = freeHead;
+            freeHead = left[id];
+        } else {
+            if (next == height.length) {
+                int capacity = Math.max(INITIAL_CAPACITY, height.length * 2);
+                this.data = Arrays.copyOf(this.data, capacity);
+                left = Arrays.copyOf(left, capacity);
+                right = Arrays.copyOf(right, capacity);
+                height = Arrays.copyOf(height, capacity);
+            }
+            id = next;
+            next++;
+        }
+        this.data[id] = data;
+        left[id] = NIL;
+        right[id] = NIL;
+        height[id] = 0;
+        return id;
+    }
+
+    /**
+     * Pushes a slot onto the free-list and nulls out its data.
+     * @param id the id of the removed node
+     */
+    private void free(int id) {
+        data[id] = null;
+        left[id] = freeHead;
+        right[id] = NIL;
+        freeHead = id;
+    }
+
+    /**
+     * Returns the height of a node, or -1 for NIL.
+     * @param id node id
+     * @return the height of the node
+     */
+    private int heightOf(int id) {
+        return id == NIL ? -1 : height[id];
+    }
+
+    /**
+     * Returns the balance factor of a node.
+     * @param id node id
+     * @return the height of the left child minus the height of the right
+     */
+    private int balanceFactor(int id) {
+        return heightOf(left[id]) - heightOf(right[id]);
+    }
+
+    /**
+     * method for the update
+     * @param curNode current node id
+     */
+    private void update(int curNode) {
+        height[curNode] = Math.max(heightOf(left[curNode]), heightOf(right[curNode])) + 1;
+    }
+
+    /**
+     * method for the left rotation
+     * @param curNode current node id
+     * @return rotated node id
+     */
+    private int leftRotation(int curNode) {
+        int target = right[curNode];
+        right[curNode] = left[target];
+        left[target] = curNode;
+        update(curNode);
+        update(target);
+        return target;
+    }
+
+    /**
+     * method for the right rotation
+     * @param curNode current node id
+     * @return rotated node id
+     */
+    private int rightRotation(int curNode) {
+        int target = left[curNode];
+        left[curNode] = right[target];
+        right[target] = curNode;
+        update(curNode);
+        update(target);
+        return target;
+    }
+
+    /**
+     * Make the tree balanced
+     * @param curNode current node id
+     * @return balanced current node id
+     */
+    private int balancedTree(int curNode) {
+        int balanceFactor = balanceFactor(curNode);
+        if (balanceFactor <= -2) {
+            if (balanceFactor(right[curNode]) > 0) {
+                right[curNode] = rightRotation(right[curNode]);
+            }
+            curNode = leftRotation(curNode);
+        } else if (balanceFactor >= 2) {
+            if (balanceFactor(left[curNode]) < 0) {
+                left[curNode] = leftRotation(left[curNode]);
+            }
+            curNode = rightRotation(curNode);
+        }
+        return curNode;
+    }
+
+    /**
+     * Returns the height of the root of the tree.
+     *
+     * Should be O(1).
+     *
+     * @return the height of the root of the tree, -1 if the tree is empty
+     */
+    public int height() {
+        return heightOf(root);
+    }
+
+    /**
+     * Clears the tree.
+     *
+     * Resets the backing arrays to the initial capacity and resets the size.
+     */
+    public void clear() {
+        data = newDataArray(INITIAL_CAPACITY);
+        left = new int[INITIAL_CAPACITY];
+        right = new int[INITIAL_CAPACITY];
+        height = new int[INITIAL_CAPACITY];
+        root = NIL;
+        freeHead = NIL;
+        next = 0;
+        size = 0;
+    }
+
+    /**
+     * Allocates a data array of the given length.
+     * @param length the length of the array
+     * @return the new array
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private T[] newDataArray(int length) {
+        return (T[]) new Comparable[length];
+    }
+
+    /**
+     * Returns the size of the tree.
+     *
+     * @return the size of the tree
+     */
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,454 @@
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A persistent AVL built by path copying.
+ *
+ * Nodes are never modified once they are reachable from a root. add and
+ * remove copy only the O(log n) nodes on the search path (plus the nodes a
+ * rotation touches) and share every other subtree with the previous version,
+ * then publish the new root with a single volatile write. As a result:
+ *
+ * snapshot() is O(1) and returns an independent tree that later writes to
+ * either tree never affect.
+ * get, contains, predecessor and iteration never lock; they read whatever
+ * root was published when they started.
+ * Writers are serialized with each other.
+ *
+ * The size of the tree is the subtree size stored in the root.
+ *
+ * @param <T> the type of data in the tree
+ */
+public class PersistentAVL<T extends Comparable<? super T>> implements Iterable<T> {
+
+    private volatile AVLNode<T> root;
+
+    /**
+     * Constructs a new, empty PersistentAVL.
+     */
+    public PersistentAVL() {}
+
+    /**
+     * Constructs a new PersistentAVL with the data in the Collection, added
+     * in the same order it is in the Collection.
+     *
+     * @param data the data to add to the tree
+     * @throws java.lang.IllegalArgumentException if data or any element in data
+     *                                            is null
+     */
+    public PersistentAVL(Collection<T> data) {
+        if (data == null || data.contains(null)) {
+            throw new IllegalArgumentException("data or any element in data cannot be null");
+        }
+        for (T element : data) {
+            add(element);
+        }
+    }
+
+    /**
+     * Constructs a PersistentAVL sharing the given root.
+     *
+     * @param root the root of an existing, never modified tree
+     */
+    private PersistentAVL(AVLNode<T> root) {
+        this.root = root;
+    }
+
+    /**
+     * Returns a point-in-time copy of the tree.
+     *
+     * Must be O(1): both trees share every node until one of them is written.
+     *
+     * @return a new PersistentAVL holding the current data
+     */
+    public PersistentAVL<T> snapshot() {
+        return new PersistentAVL<>(root);
+    }
+
+    /**
+     * Adds the element to the tree.
+     *
+     * If the data is already in the tree, then nothing should be done and no
+     * nodes are copied.
+     *
+     * Must be O(log n) time and allocate O(log n) nodes.
+     *
+     * @param data the data to add
+     * @throws java.lang.IllegalArgumentException if data is null
+     */
+    public synchronized void add(T data) {
+        if (data == null) {
+            throw new IllegalArgumentException("data is null");
+        }
+        root = addHelper(root, data);
+    }
+
+    /**
+     * Helper method for add
+     * @param curNode current node of the old version
+     * @param data data to add
+     * @return the root of the new version of this subtree
+     */
+    private AVLNode<T> addHelper(AVLNode<T> curNode, T data) {
+        if (curNode == null) {
+            return new AVLNode<>(data);
+        }
+        int cmp = data.compareTo(curNode.getData());
+        if (cmp == 0) {
+            return curNode;
+        }
+        AVLNode<T> child = addHelper(cmp < 0 ? curNode.getLeft() : curNode.getRight(), data);
+        if (child == (cmp < 0 ? curNode.getLeft() : curNode.getRight())) {
+            return curNode;
+        }
+        AVLNode<T> copy = copy(curNode);
+        if (cmp < 0) {
+            copy.setLeft(child);
+        } else {
+            copy.setRight(child);
+        }
+        update(copy);
+        return balancedTree(copy);
+    }
+
+    /**
+     * Removes and returns the element from the tree matching the given
+     * parameter. A node with two children is replaced by its predecessor.
+     *
+     * Do not return the same data that was passed in. Return the data that
+     * was stored in the tree.
+     *
+     * Must be O(log n) time and allocate O(log n) nodes.
+     *
+     * @param data the data to remove
+     * @return the data that was removed
+     * @throws java.lang.IllegalArgumentException if data is null
+     * @throws java.util.NoSuchElementException   if the data is not found
+     */
+    public synchronized T remove(T data) {
+        if (data == null) {
+            throw new IllegalArgumentException("data is null");
+        }
+        AVLNode<T> dummy = new AVLNode<>(null);
+        root = removeHelper(root, data, dummy);
+        return dummy.getData();
+    }
+
+    /**
+     * Helper method for remove
+     * @param curNode current node of the old version
+     * @param data the data to remove
+     * @param dummy dummy place for removed data
+     * @return the root of the new version of this subtree
+     */
+    private AVLNode<T> removeHelper(AVLNode<T> curNode, T data, AVLNode<T> dummy) {
+        if (curNode == null) {
+            throw new NoSuchElementException("The data is not in the tree");
+        }
+        int cmp = data.compareTo(curNode.getData());
+        AVLNode<T> copy;
+        if (cmp < 0) {
+            copy = copy(curNode);
+            copy.setLeft(removeHelper(curNode.getLeft(), data, dummy));
+        } else if (cmp > 0) {
+            copy = copy(curNode);
+            copy.setRight(removeHelper(curNode.getRight(), data, dummy));
+        } else {
+            dummy.setData(curNode.getData());
+            if (curNode.getLeft() == null) {
+                return curNode.getRight();
+            } else if (curNode.getRight() == null) {
+                return curNode.getLeft();
+            }
+            AVLNode<T> dummy2 = new AVLNode<>(null);
+            copy = copy(curNode);
+            copy.setLeft(removePredecessor(curNode.getLeft(), dummy2));
+            copy.setData(dummy2.getData());
+        }
+        update(copy);
+        return balancedTree(copy);
+    }
+
+    /**
+     * Method for removing predecessor
+     * @param curNode current node of the old version
+     * @param dummy2 dummy place for predecessor
+     * @return the root of the new version of this subtree
+     */
+    private AVLNode<T> removePredecessor(AVLNode<T> curNode, AVLNode<T> dummy2) {
+        if (curNode.getRight() == null) {
+            dummy2.setData(curNode.getData());
+            return curNode.getLeft();
+        }
+        AVLNode<T> copy = copy(curNode);
+        copy.setRight(removePredecessor(curNode.getRight(), dummy2));
+        update(copy);
+        return balancedTree(copy);
+    }
+
+    /**
+     * Returns a new node with the same data, children, height, balance
+     * factor and size as the given node.
+     * @param curNode the node to copy
+     * @return the unpublished copy
+     */
+    private AVLNode<T> copy(AVLNode<T> curNode) {
+        AVLNode<T> copy = new AVLNode<>(curNode.getData());
+        copy.setLeft(curNode.getLeft());
+        copy.setRight(curNode.getRight());
+        copy.setHeight(curNode.getHeight());
+        copy.setBalanceFactor(curNode.getBalanceFactor());
+        copy.setSize(curNode.getSize());
+        return copy;
+    }
+
+    /**
+     * method for the update
+     * @param curNode current, unpublished node
+     */
+    private void update(AVLNode<T> curNode) {
+        int lHeight = -1;
+        int rHeight = -1;
+        int lSize = 0;
+        int rSize = 0;
+        if (curNode.getLeft() != null) {
+            lHeight = curNode.getLeft().getHeight();
+            lSize = curNode.getLeft().getSize();
+        }
+        if (curNode.getRight() != null) {
+            rHeight = curNode.getRight().getHeight();
+            rSize = curNode.getRight().getSize();
+        }
+        curNode.setHeight(Math.max(lHeight, rHeight) + 1);
+        curNode.setBalanceFactor(lHeight - rHeight);
+        curNode.setSize(lSize + rSize + 1);
+    }
+
+    /**
+     * method for the left rotation. The right child may still be shared with
+     * an older version, so it is copied before it is modified.
+     * @param curNode current, unpublished node
+     * @return rotated node
+     */
+    private AVLNode<T> leftRotation(AVLNode<T> curNode) {
+        AVLNode<T> target = copy(curNode.getRight());
+        curNode.setRight(target.getLeft());
+        target.setLeft(curNode);
+        update(curNode);
+        update(target);
+        return target;
+    }
+
+    /**
+     * method for the right rotation. The left child may still be shared with
+     * an older version, so it is copied before it is modified.
+     * @param curNode current, unpublished node
+     * @return rotated node
+     */
+    private AVLNode<T> rightRotation(AVLNode<T> curNode) {
+        AVLNode<T> target = copy(curNode.getLeft());
+        curNode.setLeft(target.getRight());
+        target.setRight(curNode);
+        update(curNode);
+        update(target);
+        return target;
+    }
+
+    /**
+     * Make the tree balanced
+     * @param curNode current, unpublished node
+     * @return balanced current node
+     */
+    private AVLNode<T> balancedTree(AVLNode<T> curNode) {
+        if (curNode.getBalanceFactor() <= -2) {
+            if (curNode.getRight().getBalanceFactor() > 0) {
+                curNode.setRight(rightRotation(copy(curNode.getRight())));
+            }
+            curNode = leftRotation(curNode);
+        } else if (curNode.getBalanceFactor() >= 2) {
+            if (curNode.getLeft().getBalanceFactor() < 0) {
+                curNode.setLeft(leftRotation(copy(curNode.getLeft())));
+            }
+            curNode = rightRotation(curNode);
+        }
+        return curNode;
+    }
+
+    /**
+     * Returns the element from the tree matching the given parameter.
+     *
+     * Never locks. Must be O(log n).
+     *
+     * @param data the data to search for in the tree
+     * @return the data in the tree equal to the parameter
+     * @throws java.lang.IllegalArgumentException if data is null
+     * @throws java.util.NoSuchElementException   if the data is not in the tree
+     */
+    public T get(T data) {
+        if (data == null) {
+            throw new IllegalArgumentException("data is null");
+        }
+        AVLNode<T> curNode = root;
+        while (curNode != null) {
+            int cmp = data.compareTo(curNode.getData());
+            if (cmp < 0) {
+                curNode = curNode.getLeft();
+            } else if (cmp > 0) {
+                curNode = curNode.getRight();
+            } else {
+                return curNode.getData();
+            }
+        }
+        throw new NoSuchElementException("Data is not in the tree");
+    }
+
+    /**
+     * Returns whether or not data matching the given parameter is contained
+     * within the tree.
+     *
+     * Never locks. Must be O(log n).
+     *
+     * @param data the data to search for in the tree.
+     * @return true if the parameter is contained within the tree, false
+     * otherwise
+     * @throws java.lang.IllegalArgumentException if data is null
+     */
+    public boolean contains(T data) {
+        if (data == null) {
+            throw new IllegalArgumentException("data is null");
+        }
+        AVLNode<T> curNode = root;
+        while (curNode != null) {
+            int cmp = data.compareTo(curNode.getData());
+            if (cmp < 0) {
+                curNode = curNode.getLeft();
+            } else if (cmp > 0) {
+                curNode = curNode.getRight();
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The predecessor is the largest node that is smaller than the current
+     * data.
+     *
+     * Never locks. Must be O(log n).
+     *
+     * @param data the data to find the predecessor of
+     * @return the predecessor of data. If there is no smaller data than the
+     * one given, return null.
+     * @throws java.lang.IllegalArgumentException if the data is null
+     * @throws java.util.NoSuchElementException   if the data is not in the tree
+     */
+    public T predecessor(T data) {
+        if (data == null) {
+            throw new IllegalArgumentException("Cannot find predecessor with null data");
+        }
+        AVLNode<T> curNode = root;
+        AVLNode<T> ancestor = null;
+        while (curNode != null) {
+            int cmp = data.compareTo(curNode.getData());
+            if (cmp < 0) {
+                curNode = curNode.getLeft();
+            } else if (cmp > 0) {
+                ancestor = curNode;
+                curNode = curNode.getRight();
+            } else if (curNode.getLeft() != null) {
+                curNode = curNode.getLeft();
+                while (curNode.getRight() != null) {
+                    curNode = curNode.getRight();
+                }
+                return curNode.getData();
+            } else {
+                return ancestor == null ? null : ancestor.getData();
+            }
+        }
+        throw new NoSuchElementException("The data is not in the tree");
+    }
+
+    /**
+     * Returns an iterator over the data in sorted order, as of the moment
+     * this method is called. Writes made after that are not seen, so the tree
+     * may be modified freely while the iterator is in use.
+     *
+     * @return an iterator over the data in sorted order
+     */
+    @Override
+    public Iterator<T> iterator() {
+        Deque<AVLNode<T>> stack = new ArrayDeque<>();
+        pushLeft(stack, root);
+        return new Iterator<T>() {
+            @Override
+            public boolean hasNext() {
+                return !stack.isEmpty();
+            }
+
+            @Override
+            public T next() {
+                if (stack.isEmpty()) {
+                    throw new NoSuchElementException("No more data in the tree");
+                }
+                AVLNode<T> curNode = stack.pop();
+                pushLeft(stack, curNode.getRight());
+                return curNode.getData();
+            }
+        };
+    }
+
+    /**
+     * Pushes curNode and its chain of left children onto the stack.
+     * @param stack stack to push onto
+     * @param curNode root of the subtree to descend
+     */
+    private void pushLeft(Deque<AVLNode<T>> stack, AVLNode<T> curNode) {
+        while (curNode != null) {
+            stack.push(curNode);
+            curNode = curNode.getLeft();
+        }
+    }
+
+    /**
+     * Returns the height of the root of the tree.
+     *
+     * Should be O(1).
+     *
+     * @return the height of the root of the tree, -1 if the tree is empty
+     */
+    public int height() {
+        AVLNode<T> curRoot = root;
+        return curRoot == null ? -1 : curRoot.getHeight();
+    }
+
+    /**
+     * Clears the tree. Snapshots taken earlier keep their data.
+     */
+    public synchronized void clear() {
+        root = null;
+    }
+
+    /**
+     * Returns the root of the tree. The nodes reachable from it must not be
+     * modified.
+     *
+     * @return the root of the tree
+     */
+    public AVLNode<T> getRoot() {
+        return root;
+    }
+
+    /**
+     * Returns the size of the tree.
+     *
+     * @return the size of the tree
+     */
+    public int size() {
+        AVLNode<T> curRoot = root;
+        return curRoot == null ? 0 : curRoot.getSize();
+    }
+}
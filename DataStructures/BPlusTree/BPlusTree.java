@@ -0,0 +1,651 @@
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A B+-tree with configurable fanout.
+ *
+ * All data lives in the leaves, which are linked in key order; internal nodes
+ * only hold separator keys, where keys[i] is less than or equal to every data
+ * in children[i + 1] and greater than every data in children[i]. Because each
+ * node holds up to fanout - 1 keys in one array, a lookup touches only
+ * log_fanout(n) nodes instead of the log_2(n) of BST and AVL, and range scans
+ * walk the leaf chain without going back up the tree.
+ *
+ * @param <T> the type of data in the tree
+ */
+public class BPlusTree<T extends Comparable<? super T>> implements Iterable<T> {
+
+    /**
+     * The fanout of a BPlusTree created with the default constructor.
+     */
+    public static final int DEFAULT_FANOUT = 64;
+
+    private final int fanout;
+    private final int maxKeys;
+    private final int minKeys;
+    private BPlusTreeNode<T> root;
+    private int size;
+    private T splitKey;
+
+    /**
+     * Constructs a new, empty BPlusTree with DEFAULT_FANOUT.
+     */
+    public BPlusTree() {
+        this(DEFAULT_FANOUT);
+    }
+
+    /**
+     * Constructs a new, empty BPlusTree.
+     *
+     * Every node holds at most fanout - 1 keys and, except for the root, at
+     * least (fanout - 1) / 2 keys.
+     *
+     * @param fanout the maximum number of children of an internal node
+     * @throws java.lang.IllegalArgumentException if fanout is less than 3
+     */
+    public BPlusTree(int fanout) {
+        if (fanout < 3) {
+            throw new IllegalArgumentException("fanout must be at least 3");
+        }
+        this.fanout = fanout;
+        this.maxKeys = fanout - 1;
+        this.minKeys = (fanout - 1) / 2;
+    }
+
+    /**
+     * Constructs a new BPlusTree with DEFAULT_FANOUT and the data in the
+     * Collection, added in the same order it is in the Collection.
+     *
+     * @param data the data to add to the tree
+     * @throws java.lang.IllegalArgumentException if data or any element in data
+     *                                            is null
+     */
+    public BPlusTree(Collection<T> data) {
+        this(DEFAULT_FANOUT);
+        if (data == null || data.contains(null)) {
+            throw new IllegalArgumentException("data or any element in data cannot be null");
+        }
+        for (T element : data) {
+            add(element);
+        }
+    }
+
+    /**
+     * Adds the data to the tree.
+     *
+     * If the data is already in the tree, then nothing should be done (the
+     * duplicate shouldn't get added, and size should not be incremented).
+     * Overflowing nodes are split on the way back up, and the tree grows in
+     * height only when the root splits.
+     *
+     * Must be O(log n).
+     *
+     * @param data the data to add
+     * @throws java.lang.IllegalArgumentException if data is null
+     */
+    public void add(T data) {
+        if (data == null) {
+            throw new IllegalArgumentException("data is null");
+        }
+        if (root == null) {
+            root = new BPlusTreeNode<>(fanout, true);
+        }
+        BPlusTreeNode<T> sibling = addHelper(root, data);
+        if (sibling != null) {
+            BPlusTreeNode<T> newRoot = new BPlusTreeNode<>(fanout, false);
+            newRoot.getKeys()[0] = splitKey;
+            newRoot.getChildren()[0] = root;
+            newRoot.getChildren()[1] = sibling;
+            newRoot.setNumKeys(1);
+            root = newRoot;
+            splitKey = null;
+        }
+    }
+
+    /**
+     * Helper method for add
+     * @param curNode current node
+     * @param data the data to add
+     * @return the new right sibling if curNode was split, otherwise null. On
+     * a split, splitKey holds the separator to insert into the parent.
+     */
+    private BPlusTreeNode<T> addHelper(BPlusTreeNode<T> curNode, T data) {
+        T[] keys = curNode.getKeys();
+        int numKeys = curNode.getNumKeys();
+        if (curNode.isLeaf()) {
+            int idx = lowerBound(curNode, data);
+            if (idx < numKeys && data.compareTo(keys[idx]) == 0) {
+                return null;
+            }
+            System.arraycopy(keys, idx, keys, idx + 1, numKeys - idx);
+            keys[idx] = data;
+            curNode.setNumKeys(numKeys + 1);
+            size++;
+            return curNode.getNumKeys() > maxKeys ? splitLeaf(curNode) : null;
+        }
+        int idx = childIndex(curNode, data);
+        BPlusTreeNode<T>[] children = curNode.getChildren();
+        BPlusTreeNode<T> sibling = addHelper(children[idx], data);
+        if (sibling == null) {
+            return null;
+        }
+        System.arraycopy(keys, idx, keys, idx + 1, numKeys - idx);
+        System.arraycopy(children, idx + 1, children, idx + 2, numKeys - idx);
+        keys[idx] = splitKey;
+        children[idx + 1] = sibling;
+        curNode.setNumKeys(numKeys + 1);
+        return curNode.getNumKeys() > maxKeys ? splitInternal(curNode) : null;
+    }
+
+    /**
+     * Splits an overflowing leaf in half. The first key of the new right
+     * leaf is copied up as the separator.
+     * @param leaf the leaf to split
+     * @return the new right leaf
+     */
+    private BPlusTreeNode<T> splitLeaf(BPlusTreeNode<T> leaf) {
+        BPlusTreeNode<T> sibling = new BPlusTreeNode<>(fanout, true);
+        int numKeys = leaf.getNumKeys();
+        int mid = numKeys / 2;
+        System.arraycopy(leaf.getKeys(), mid, sibling.getKeys(), 0, numKeys - mid);
+        clearKeys(leaf, mid, numKeys);
+        leaf.setNumKeys(mid);
+        sibling.setNumKeys(numKeys - mid);
+        sibling.setNext(leaf.getNext());
+        leaf.setNext(sibling);
+        splitKey = sibling.getKeys()[0];
+        return sibling;
+    }
+
+    /**
+     * Splits an overflowing internal node in half. The middle key is moved
+     * up as the separator.
+     * @param curNode the internal node to split
+     * @return the new right node
+     */
+    private BPlusTreeNode<T> splitInternal(BPlusTreeNode<T> curNode) {
+        BPlusTreeNode<T> sibling = new BPlusTreeNode<>(fanout, false);
+        int numKeys = curNode.getNumKeys();
+        int mid = numKeys / 2;
+        T[] keys = curNode.getKeys();
+        BPlusTreeNode<T>[] children = curNode.getChildren();
+        splitKey = keys[mid];
+        System.arraycopy(keys, mid + 1, sibling.getKeys(), 0, numKeys - mid - 1);
+        System.arraycopy(children, mid + 1, sibling.getChildren(), 0, numKeys - mid);
+        clearKeys(curNode, mid, numKeys);
+        for (int i = mid + 1; i <= numKeys; i++) {
+            children[i] = null;
+        }
+        curNode.setNumKeys(mid);
+        sibling.setNumKeys(numKeys - mid - 1);
+        return sibling;
+    }
+
+    /**
+     * Removes and returns the data from the tree matching the given
+     * parameter.
+     *
+     * Underflowing nodes borrow a key from a sibling when the sibling can
+     * spare one, and are merged with a sibling otherwise. The tree shrinks in
+     * height only when the root is left with a single child.
+     *
+     * Do not return the same data that was passed in. Return the data that
+     * was stored in the tree.
+     *
+     * Must be O(log n).
+     *
+     * @param data the data to remove
+     * @return the data that was removed
+     * @throws java.lang.IllegalArgumentException if data is null
+     * @throws java.util.NoSuchElementException   if the data is not in the tree
+     */
+    public T remove(T data) {
+        if (data == null) {
+            throw new IllegalArgumentException("data is null");
+        }
+        if (root == null) {
+            throw new NoSuchElementException("The data is not in the tree");
+        }
+        T removed = removeHelper(root, data);
+        if (root.getNumKeys() == 0) {
+            root = root.isLeaf() ? null : root.getChildren()[0];
+        }
+        return removed;
+    }
+
+    /**
+     * Helper method for remove
+     * @param curNode current node
+     * @param data the data to remove
+     * @return the data that was removed
+     */
+    private T removeHelper(BPlusTreeNode<T> curNode, T data) {
+        T[] keys = curNode.getKeys();
+        int numKeys = curNode.getNumKeys();
+        if (curNode.isLeaf()) {
+            int idx = lowerBound(curNode, data);
+            if (idx == numKeys || data.compareTo(keys[idx]) != 0) {
+                throw new NoSuchElementException("The data is not in the tree");
+            }
+            T removed = keys[idx];
+            System.arraycopy(keys, idx + 1, keys, idx, numKeys - idx - 1);
+            keys[numKeys - 1] = null;
+            curNode.setNumKeys(numKeys - 1);
+            size--;
+            return removed;
+        }
+        int idx = childIndex(curNode, data);
+        T removed = removeHelper(curNode.getChildren()[idx], data);
+        if (curNode.getChildren()[idx].getNumKeys() < minKeys) {
+            fixUnderflow(curNode, idx);
+        }
+        return removed;
+    }
+
+    /**
+     * Restores the minimum key count of a child after a removal.
+     * @param parent the parent of the underflowing child
+     * @param idx the index of the underflowing child in parent
+     */
+    private void fixUnderflow(BPlusTreeNode<T> parent, int idx) {
+        BPlusTreeNode<T>[] children = parent.getChildren();
+        if (idx > 0 && children[idx - 1].getNumKeys() > minKeys) {
+            borrowFromLeft(parent, idx);
+        } else if (idx < parent.getNumKeys() && children[idx + 1].getNumKeys() > minKeys) {
+            borrowFromRight(parent, idx);
+        } else if (idx > 0) {
+            merge(parent, idx - 1);
+        } else {
+            merge(parent, idx);
+        }
+    }
+
+    /**
+     * Moves the last key of the left sibling into the child.
+     * @param parent the parent of both nodes
+     * @param idx the index of the child in parent
+     */
+    private void borrowFromLeft(BPlusTreeNode<T> parent, int idx) {
+        BPlusTreeNode<T> child = parent.getChildren()[idx];
+        BPlusTreeNode<T> left = parent.getChildren()[idx - 1];
+        T[] keys = child.getKeys();
+        int numKeys = child.getNumKeys();
+        int leftKeys = left.getNumKeys();
+        System.arraycopy(keys, 0, keys, 1, numKeys);
+        if (child.isLeaf()) {
+            keys[0] = left.getKeys()[leftKeys - 1];
+            parent.getKeys()[idx - 1] = keys[0];
+        } else {
+            BPlusTreeNode<T>[] children = child.getChildren();
+            System.arraycopy(children, 0, children, 1, numKeys + 1);
+            keys[0] = parent.getKeys()[idx - 1];
+            children[0] = left.getChildren()[leftKeys];
+            left.getChildren()[leftKeys] = null;
+            parent.getKeys()[idx - 1] = left.getKeys()[leftKeys - 1];
+        }
+        left.getKeys()[leftKeys - 1] = null;
+        left.setNumKeys(leftKeys - 1);
+        child.setNumKeys(numKeys + 1);
+    }
+
+    /**
+     * Moves the first key of the right sibling into the child.
+     * @param parent the parent of both nodes
+     * @param idx the index of the child in parent
+     */
+    private void borrowFromRight(BPlusTreeNode<T> parent, int idx) {
+        BPlusTreeNode<T> child = parent.getChildren()[idx];
+        BPlusTreeNode<T> right = parent.getChildren()[idx + 1];
+        T[] rightKeys = right.getKeys();
+        int numKeys = child.getNumKeys();
+        int rightNumKeys = right.getNumKeys();
+        if (child.isLeaf()) {
+            child.getKeys()[numKeys] = rightKeys[0];
+            System.arraycopy(rightKeys, 1, rightKeys, 0, rightNumKeys - 1);
+            parent.getKeys()[idx] = rightKeys[0];
+        } else {
+            BPlusTreeNode<T>[] rightChildren = right.getChildren();
+            child.getKeys()[numKeys] = parent.getKeys()[idx];
+            child.getChildren()[numKeys + 1] = rightChildren[0];
+            parent.getKeys()[idx] = rightKeys[0];
+            System.arraycopy(rightKeys, 1, rightKeys, 0, rightNumKeys - 1);
+            System.arraycopy(rightChildren, 1, rightChildren, 0, rightNumKeys);
+            rightChildren[rightNumKeys] = null;
+        }
+        rightKeys[rightNumKeys - 1] = null;
+        right.setNumKeys(rightNumKeys - 1);
+        child.setNumKeys(numKeys + 1);
+    }
+
+    /**
+     * Merges the child at idx + 1 into the child at idx and removes their
+     * separator from the parent.
+     * @param parent the parent of both nodes
+     * @param idx the index of the left node in parent
+     */
+    private void merge(BPlusTreeNode<T> parent, int idx) {
+        BPlusTreeNode<T>[] parentChildren = parent.getChildren();
+        T[] parentKeys = parent.getKeys();
+        BPlusTreeNode<T> left = parentChildren[idx];
+        BPlusTreeNode<T> right = parentChildren[idx + 1];
+        int leftKeys = left.getNumKeys();
+        int rightKeys = right.getNumKeys();
+        if (left.isLeaf()) {
+            System.arraycopy(right.getKeys(), 0, left.getKeys(), leftKeys, rightKeys);
+            left.setNumKeys(leftKeys + rightKeys);
+            left.setNext(right.getNext());
+        } else {
+            left.getKeys()[leftKeys] = parentKeys[idx];
+            System.arraycopy(right.getKeys(), 0, left.getKeys(), leftKeys + 1, rightKeys);
+            System.arraycopy(right.getChildren(), 0, left.getChildren(), leftKeys + 1, rightKeys + 1);
+            left.setNumKeys(leftKeys + rightKeys + 1);
+        }
+        int parentNumKeys = parent.getNumKeys();
+        System.arraycopy(parentKeys, idx + 1, parentKeys, idx, parentNumKeys - idx - 1);
+        System.arraycopy(parentChildren, idx + 2, parentChildren, idx + 1, parentNumKeys - idx - 1);
+        parentKeys[parentNumKeys - 1] = null;
+        parentChildren[parentNumKeys] = null;
+        parent.setNumKeys(parentNumKeys - 1);
+    }
+
+    /**
+     * Returns the data from the tree matching the given parameter.
+     *
+     * Do not return the same data that was passed in. Return the data that
+     * was stored in the tree.
+     *
+     * Must be O(log n).
+     *
+     * @param data the data to search for
+     * @return the data in the tree equal to the parameter
+     * @throws java.lang.IllegalArgumentException if data is null
+     * @throws java.util.NoSuchElementException   if the data is not in the tree
+     */
+    public T get(T data) {
+        if (data == null) {
+            throw new IllegalArgumentException("data is null");
+        }
+        if (root == null) {
+            throw new NoSuchElementException("The data is not in the tree");
+        }
+        BPlusTreeNode<T> leaf = findLeaf(data);
+        int idx = lowerBound(leaf, data);
+        if (idx == leaf.getNumKeys() || data.compareTo(leaf.getKeys()[idx]) != 0) {
+            throw new NoSuchElementException("The data is not in the tree");
+        }
+        return leaf.getKeys()[idx];
+    }
+
+    /**
+     * Returns whether or not data matching the given parameter is contained
+     * within the tree.
+     *
+     * Must be O(log n).
+     *
+     * @param data the data to search for
+     * @return true if the parameter is contained within the tree, false
+     * otherwise
+     * @throws java.lang.IllegalArgumentException if data is null
+     */
+    public boolean contains(T data) {
+        if (data == null) {
+            throw new IllegalArgumentException("data is null");
+        }
+        if (root == null) {
+            return false;
+        }
+        BPlusTreeNode<T> leaf = findLeaf(data);
+        int idx = lowerBound(leaf, data);
+        return idx < leaf.getNumKeys() && data.compareTo(leaf.getKeys()[idx]) == 0;
+    }
+
+    /**
+     * Returns an iterator over all data in the tree in sorted order.
+     *
+     * The tree should not be modified while the iterator is in use.
+     *
+     * @return an iterator over the data in sorted order
+     */
+    @Override
+    public Iterator<T> iterator() {
+        BPlusTreeNode<T> leaf = root;
+        while (leaf != null && !leaf.isLeaf()) {
+            leaf = leaf.getChildren()[0];
+        }
+        return new LeafIterator(leaf, 0, null, false);
+    }
+
+    /**
+     * Returns an iterator over the data in the range [from, to) in sorted
+     * order.
+     *
+     * Must be O(log n + k), where k is the number of data returned. The tree
+     * should not be modified while the iterator is in use.
+     *
+     * @param from the lower bound, inclusive
+     * @param to   the upper bound, exclusive
+     * @return an iterator over the data in the range
+     * @throws java.lang.IllegalArgumentException if from or to is null, or if
+     *                                            from is greater than to
+     */
+    public Iterator<T> range(T from, T to) {
+        return range(from, true, to, false);
+    }
+
+    /**
+     * Returns an iterator over the data between from and to in sorted order.
+     *
+     * Descends once to the leaf holding from, then follows the leaf links.
+     *
+     * Must be O(log n + k), where k is the number of data returned. The tree
+     * should not be modified while the iterator is in use.
+     *
+     * @param from          the lower bound
+     * @param fromInclusive whether from itself is part of the range
+     * @param to            the upper bound
+     * @param toInclusive   whether to itself is part of the range
+     * @return an iterator over the data in the range
+     * @throws java.lang.IllegalArgumentException if from or to is null, or if
+     *                                            from is greater than to
+     */
+    public Iterator<T> range(T from, boolean fromInclusive, T to, boolean toInclusive) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Range bounds cannot be null");
+        }
+        if (from.compareTo(to) > 0) {
+            throw new IllegalArgumentException("from is greater than to");
+        }
+        if (root == null) {
+            return new LeafIterator(null, 0, to, toInclusive);
+        }
+        BPlusTreeNode<T> leaf = findLeaf(from);
+        int idx = lowerBound(leaf, from);
+        if (!fromInclusive && idx < leaf.getNumKeys() && from.compareTo(leaf.getKeys()[idx]) == 0) {
+            idx++;
+        }
+        return new LeafIterator(leaf, idx, to, toInclusive);
+    }
+
+    /**
+     * Iterator that walks the linked leaves from a starting position until
+     * it passes an optional upper bound.
+     */
+    private class LeafIterator implements Iterator<T> {
+        private BPlusTreeNode<T> leaf;
+        private int idx;
+        private final T to;
+        private final boolean toInclusive;
+
+        /**
+         * Constructs an iterator starting at the given leaf position.
+         * @param leaf        the starting leaf, or null if there is no data
+         * @param idx         the starting index in the leaf
+         * @param to          the upper bound, or null for no bound
+         * @param toInclusive whether to itself is part of the range
+         */
+        LeafIterator(BPlusTreeNode<T> leaf, int idx, T to, boolean toInclusive) {
+            this.leaf = leaf;
+            this.idx = idx;
+            this.to = to;
+            this.toInclusive = toInclusive;
+            skipExhausted();
+        }
+
+        /**
+         * Moves to the next leaf while the current one has no more keys.
+         */
+        private void skipExhausted() {
+            while (leaf != null && idx >= leaf.getNumKeys()) {
+                leaf = leaf.getNext();
+                idx = 0;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (leaf == null) {
+                return false;
+            }
+            if (to == null) {
+                return true;
+            }
+            int cmp = leaf.getKeys()[idx].compareTo(to);
+            return cmp < 0 || (cmp == 0 && toInclusive);
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException("No more data in the range");
+            }
+            T data = leaf.getKeys()[idx];
+            idx++;
+            skipExhausted();
+            return data;
+        }
+    }
+
+    /**
+     * Descends from the root to the leaf that would hold the given data.
+     * @param data the data to search for
+     * @return the leaf for data
+     */
+    private BPlusTreeNode<T> findLeaf(T data) {
+        BPlusTreeNode<T> curNode = root;
+        while (!curNode.isLeaf()) {
+            curNode = curNode.getChildren()[childIndex(curNode, data)];
+        }
+        return curNode;
+    }
+
+    /**
+     * Binary searches a node for the first key greater than or equal to data.
+     * @param curNode the node to search
+     * @param data the data to search for
+     * @return the index of the first key not less than data
+     */
+    private int lowerBound(BPlusTreeNode<T> curNode, T data) {
+        T[] keys = curNode.getKeys();
+        int lo = 0;
+        int hi = curNode.getNumKeys();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (keys[mid].compareTo(data) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Binary searches an internal node for the child whose range holds data.
+     * @param curNode the internal node to search
+     * @param data the data to search for
+     * @return the index of the first key greater than data
+     */
+    private int childIndex(BPlusTreeNode<T> curNode, T data) {
+        T[] keys = curNode.getKeys();
+        int lo = 0;
+        int hi = curNode.getNumKeys();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (keys[mid].compareTo(data) <= 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Nulls out the keys of a node in the given index range.
+     * @param curNode the node to clear
+     * @param from the first index to clear, inclusive
+     * @param to the last index to clear, exclusive
+     */
+    private void clearKeys(BPlusTreeNode<T> curNode, int from, int to) {
+        T[] keys = curNode.getKeys();
+        for (int i = from; i < to; i++) {
+            keys[i] = null;
+        }
+    }
+
+    /**
+     * Returns the height of the root of the tree. A tree with a single leaf
+     * has a height of 0.
+     *
+     * Must be O(log n).
+     *
+     * @return the height of the root of the tree, -1 if the tree is empty
+     */
+    public int height() {
+        int height = -1;
+        BPlusTreeNode<T> curNode = root;
+        while (curNode != null) {
+            height++;
+            curNode = curNode.isLeaf() ? null : curNode.getChildren()[0];
+        }
+        return height;
+    }
+
+    /**
+     * Clears the tree.
+     *
+     * Clears all data and resets the size.
+     */
+    public void clear() {
+        root = null;
+        size = 0;
+    }
+
+    /**
+     * Returns the fanout of the tree.
+     *
+     * @return the maximum number of children of an internal node
+     */
+    public int getFanout() {
+        return fanout;
+    }
+
+    /**
+     * Returns the root of the tree.
+     *
+     * @return the root of the tree
+     */
+    public BPlusTreeNode<T> getRoot() {
+        return root;
+    }
+
+    /**
+     * Returns the size of the tree.
+     *
+     * @return the size of the tree
+     */
+    public int size() {
+        return size;
+    }
+}
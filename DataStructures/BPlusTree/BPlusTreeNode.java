@@ -0,0 +1,100 @@
+public class BPlusTreeNode<T extends Comparable<? super T>> {
+
+    private T[] keys;
+    private int numKeys;
+    private BPlusTreeNode<T>[] children;
+    private BPlusTreeNode<T> next;
+
+    /**
+     * Constructs a BPlusTreeNode for a tree with the given fanout.
+     *
+     * Both arrays have room for one entry more than the fanout allows, so a
+     * node can overflow by one before it is split.
+     *
+     * @param fanout the maximum number of children of an internal node
+     * @param leaf   whether the node is a leaf
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    BPlusTreeNode(int fanout, boolean leaf) {
+        keys = (T[]) new Comparable[fanout];
+        if (!leaf) {
+            children = (BPlusTreeNode<T>[]) new BPlusTreeNode[fanout + 1];
+        }
+    }
+
+    /**
+     * Gets whether this node is a leaf.
+     *
+     * @return true if this node is a leaf
+     */
+    boolean isLeaf() {
+        return children == null;
+    }
+
+    /**
+     * Gets the keys array. Only the first getNumKeys() entries are in use.
+     *
+     * @return the keys array
+     */
+    T[] getKeys() {
+        return keys;
+    }
+
+    /**
+     * Gets the number of keys in this node.
+     *
+     * @return the number of keys
+     */
+    int getNumKeys() {
+        return numKeys;
+    }
+
+    /**
+     * Sets the number of keys in this node.
+     *
+     * @param numKeys the new number of keys
+     */
+    void setNumKeys(int numKeys) {
+        this.numKeys = numKeys;
+    }
+
+    /**
+     * Gets the children array of an internal node. Only the first
+     * getNumKeys() + 1 entries are in use.
+     *
+     * @return the children array, or null for a leaf
+     */
+    BPlusTreeNode<T>[] getChildren() {
+        return children;
+    }
+
+    /**
+     * Gets the next leaf in key order.
+     *
+     * @return the next leaf, or null if this is the last leaf
+     */
+    BPlusTreeNode<T> getNext() {
+        return next;
+    }
+
+    /**
+     * Sets the next leaf in key order.
+     *
+     * @param next the new next leaf
+     */
+    void setNext(BPlusTreeNode<T> next) {
+        this.next = next;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(isLeaf() ? "Leaf containing: [" : "Node containing: [");
+        for (int i = 0; i < numKeys; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(keys[i]);
+        }
+        return sb.append("]").toString();
+    }
+}
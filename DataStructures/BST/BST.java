@@ -1,6 +1,7 @@
 import java.util.*;
+import java.util.function.Consumer;
 
-public class BST<T extends Comparable<? super T>> {
+public class BST<T extends Comparable<? super T>> implements Iterable<T> {
 
     private BSTNode<T> root;
     private int size;
@@ -559,6 +560,362 @@ public class BST<T extends Comparable<? super T>> {
         }
     }
 
+    /**
+     * Returns a lazy iterator over the pre-order traversal of the tree.
+     *
+     * Unlike preorder(), no list is built and no recursion is used; the
+     * iterator keeps an explicit stack of at most O(h) nodes, so callers may
+     * stop early without paying for the rest of the tree.
+     *
+     * The tree should not be modified while the iterator is in use.
+     *
+     * @return an iterator over the data in pre-order
+     */
+    public Iterator<T> preorderIterator() {
+        return new PreorderIterator();
+    }
+
+    /**
+     * Returns a lazy iterator over the in-order traversal of the tree.
+     *
+     * Uses an explicit stack of at most O(h) nodes. The tree should not be
+     * modified while the iterator is in use.
+     *
+     * @return an iterator over the data in sorted order
+     */
+    public Iterator<T> inorderIterator() {
+        return Spliterators.iterator(inorderSpliterator());
+    }
+
+    /**
+     * Returns a lazy iterator over the post-order traversal of the tree.
+     *
+     * Uses an explicit stack of at most O(h) nodes. The tree should not be
+     * modified while the iterator is in use.
+     *
+     * @return an iterator over the data in post-order
+     */
+    public Iterator<T> postorderIterator() {
+        return new PostorderIterator();
+    }
+
+    /**
+     * Returns a lazy iterator over the level-order traversal of the tree.
+     *
+     * Uses a queue holding at most one level of the tree. The tree should not
+     * be modified while the iterator is in use.
+     *
+     * @return an iterator over the data in level order
+     */
+    public Iterator<T> levelorderIterator() {
+        return new LevelorderIterator();
+    }
+
+    /**
+     * Returns the in-order iterator, so the tree can be used in for-each
+     * loops.
+     *
+     * @return an iterator over the data in sorted order
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return inorderIterator();
+    }
+
+    /**
+     * Returns a spliterator over the pre-order traversal of the tree.
+     *
+     * @return a sized, ordered spliterator over the data in pre-order
+     */
+    public Spliterator<T> preorderSpliterator() {
+        return traversalSpliterator(preorderIterator());
+    }
+
+    /**
+     * Returns a spliterator over the in-order traversal of the tree.
+     *
+     * The spliterator splits along subtrees instead of copying elements into
+     * batches, so parallel streams can work on disjoint parts of the tree
+     * directly.
+     *
+     * @return a sorted spliterator over the data in sorted order
+     */
+    public Spliterator<T> inorderSpliterator() {
+        return new InorderSpliterator(root, new ArrayDeque<>(), false, size, true);
+    }
+
+    /**
+     * Returns the in-order spliterator.
+     *
+     * @return a sorted spliterator over the data in sorted order
+     */
+    @Override
+    public Spliterator<T> spliterator() {
+        return inorderSpliterator();
+    }
+
+    /**
+     * Returns a spliterator over the post-order traversal of the tree.
+     *
+     * @return a sized, ordered spliterator over the data in post-order
+     */
+    public Spliterator<T> postorderSpliterator() {
+        return traversalSpliterator(postorderIterator());
+    }
+
+    /**
+     * Returns a spliterator over the level-order traversal of the tree.
+     *
+     * @return a sized, ordered spliterator over the data in level order
+     */
+    public Spliterator<T> levelorderSpliterator() {
+        return traversalSpliterator(levelorderIterator());
+    }
+
+    /**
+     * Wraps a traversal iterator in a sized, ordered spliterator.
+     * @param iterator the iterator over the traversal
+     * @return the spliterator
+     */
+    private Spliterator<T> traversalSpliterator(Iterator<T> iterator) {
+        return Spliterators.spliterator(iterator, size,
+                Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL);
+    }
+
+    /**
+     * Iterator for the pre-order traversal. The stack holds the roots of the
+     * subtrees that are still to be visited.
+     */
+    private class PreorderIterator implements Iterator<T> {
+        private final Deque<BSTNode<T>> stack = new ArrayDeque<>();
+
+        /**
+         * Starts the traversal at the root.
+         */
+        PreorderIterator() {
+            if (root != null) {
+                stack.push(root);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !stack.isEmpty();
+        }
+
+        @Override
+        public T next() {
+            if (stack.isEmpty()) {
+                throw new NoSuchElementException("No more data in the tree");
+            }
+            BSTNode<T> curNode = stack.pop();
+            if (curNode.getRight() != null) {
+                stack.push(curNode.getRight());
+            }
+            if (curNode.getLeft() != null) {
+                stack.push(curNode.getLeft());
+            }
+            return curNode.getData();
+        }
+    }
+
+    /**
+     * Iterator for the post-order traversal. The stack holds the path from
+     * the root to the next node to visit.
+     */
+    private class PostorderIterator implements Iterator<T> {
+        private final Deque<BSTNode<T>> stack = new ArrayDeque<>();
+
+        /**
+         * Starts the traversal at the first leaf in post-order.
+         */
+        PostorderIterator() {
+            pushLeaf(root);
+        }
+
+        /**
+         * Pushes the path from curNode down to the first node visited in its
+         * post-order, preferring left children over right children.
+         * @param curNode root of the subtree to descend
+         */
+        private void pushLeaf(BSTNode<T> curNode) {
+            while (curNode != null) {
+                stack.push(curNode);
+                if (curNode.getLeft() != null) {
+                    curNode = curNode.getLeft();
+                } else {
+                    curNode = curNode.getRight();
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !stack.isEmpty();
+        }
+
+        @Override
+        public T next() {
+            if (stack.isEmpty()) {
+                throw new NoSuchElementException("No more data in the tree");
+            }
+            BSTNode<T> curNode = stack.pop();
+            if (!stack.isEmpty() && stack.peek().getLeft() == curNode) {
+                pushLeaf(stack.peek().getRight());
+            }
+            return curNode.getData();
+        }
+    }
+
+    /**
+     * Iterator for the level-order traversal.
+     */
+    private class LevelorderIterator implements Iterator<T> {
+        private final Queue<BSTNode<T>> queue = new ArrayDeque<>();
+
+        /**
+         * Starts the traversal at the root.
+         */
+        LevelorderIterator() {
+            if (root != null) {
+                queue.add(root);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !queue.isEmpty();
+        }
+
+        @Override
+        public T next() {
+            if (queue.isEmpty()) {
+                throw new NoSuchElementException("No more data in the tree");
+            }
+            BSTNode<T> curNode = queue.poll();
+            if (curNode.getLeft() != null) {
+                queue.add(curNode.getLeft());
+            }
+            if (curNode.getRight() != null) {
+                queue.add(curNode.getRight());
+            }
+            return curNode.getData();
+        }
+    }
+
+    /**
+     * Spliterator for the in-order traversal that splits along subtrees.
+     *
+     * The remaining elements are, in order: the in-order traversal of
+     * pending, then for every node on the stack (top first) its data followed
+     * by its right subtree. If trimmed is set, the right subtree of the
+     * bottom node of the stack belongs to another spliterator and is skipped.
+     */
+    private class InorderSpliterator implements Spliterator<T> {
+        private BSTNode<T> pending;
+        private final Deque<BSTNode<T>> stack;
+        private boolean trimmed;
+        private long est;
+        private boolean sized;
+
+        /**
+         * Constructs a spliterator over the given state.
+         * @param pending subtree still to be traversed before the stack
+         * @param stack nodes to visit after pending, top first
+         * @param trimmed whether the bottom node's right subtree is excluded
+         * @param est estimated number of remaining elements
+         * @param sized whether est is exact
+         */
+        InorderSpliterator(BSTNode<T> pending, Deque<BSTNode<T>> stack,
+                           boolean trimmed, long est, boolean sized) {
+            this.pending = pending;
+            this.stack = stack;
+            this.trimmed = trimmed;
+            this.est = est;
+            this.sized = sized;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            Objects.requireNonNull(action);
+            if (pending != null) {
+                pushLeft(stack, pending);
+                pending = null;
+            }
+            if (stack.isEmpty()) {
+                return false;
+            }
+            BSTNode<T> curNode = stack.pop();
+            if (!stack.isEmpty() || !trimmed) {
+                pushLeft(stack, curNode.getRight());
+            }
+            if (est > 0) {
+                est--;
+            }
+            action.accept(curNode.getData());
+            return true;
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            InorderSpliterator prefix;
+            if (pending != null && pending.getLeft() != null) {
+                prefix = new InorderSpliterator(pending.getLeft(), new ArrayDeque<>(), false, est >>> 1, false);
+                stack.push(pending);
+                pending = null;
+            } else {
+                if (pending != null) {
+                    stack.push(pending);
+                    pending = null;
+                }
+                if (stack.size() >= 2) {
+                    BSTNode<T> bottom = stack.removeLast();
+                    Deque<BSTNode<T>> prefixStack = new ArrayDeque<>(stack);
+                    stack.clear();
+                    stack.push(bottom);
+                    prefix = new InorderSpliterator(null, prefixStack, false, est >>> 1, false);
+                } else if (stack.size() == 1 && !trimmed && stack.peek().getRight() != null) {
+                    pending = stack.peek().getRight();
+                    prefix = new InorderSpliterator(null, new ArrayDeque<>(stack), true, 1, false);
+                    stack.clear();
+                } else {
+                    return null;
+                }
+            }
+            est -= prefix.est;
+            sized = false;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return est;
+        }
+
+        @Override
+        public int characteristics() {
+            return (sized ? Spliterator.SIZED : 0) | Spliterator.ORDERED
+                    | Spliterator.SORTED | Spliterator.DISTINCT | Spliterator.NONNULL;
+        }
+
+        @Override
+        public Comparator<? super T> getComparator() {
+            return null;
+        }
+    }
+
+    /**
+     * Pushes curNode and its chain of left children onto the stack.
+     * @param stack stack to push onto
+     * @param curNode root of the subtree to descend
+     */
+    private void pushLeft(Deque<BSTNode<T>> stack, BSTNode<T> curNode) {
+        while (curNode != null) {
+            stack.push(curNode);
+            curNode = curNode.getLeft();
+        }
+    }
+
     /**
      * Returns the root of the tree.
      *
@@ -0,0 +1,304 @@
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Answers deepest common ancestor (DCA) and path queries on a snapshot of a
+ * BST after a single O(n) preprocessing pass.
+ *
+ * Every node gets an id equal to its position in the in-order traversal, so
+ * ids are sorted by data and a node is found by binary search. For two nodes
+ * with ids i <= j, their DCA is the shallowest node with an id in [i, j]. The
+ * DCA is therefore a range-minimum query over the depth array, answered with
+ * a sparse table over blocks of BLOCK_SIZE depths plus a scan of at most two
+ * partial blocks. With the parent ids, a path is then built in time
+ * proportional to its length.
+ *
+ * The query engine does not see later changes to the tree; build a new one
+ * after modifying it.
+ *
+ * @param <T> the type of data in the tree
+ */
+public class BSTPathQuery<T extends Comparable<? super T>> {
+
+    /**
+     * The number of depths scanned directly instead of through the sparse
+     * table.
+     */
+    public static final int BLOCK_SIZE = 32;
+
+    private final T[] data;
+    private final int[] depth;
+    private final int[] parent;
+    private final int[][] sparse;
+
+    /**
+     * Preprocesses the given tree.
+     *
+     * Must be O(n) time and O(n) space.
+     *
+     * @param tree the tree to answer queries on
+     * @throws java.lang.IllegalArgumentException if tree is null
+     */
+    public BSTPathQuery(BST<T> tree) {
+        if (tree == null) {
+            throw new IllegalArgumentException("tree is null");
+        }
+        int n = tree.size();
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        T[] inOrder = (T[]) new Comparable[n];
+        data = inOrder;
+        depth = new int[n];
+        parent = new int[n];
+        buildArrays(tree.getRoot());
+        sparse = buildSparseTable(n);
+    }
+
+    /**
+     * Stack frame for the iterative in-order traversal in buildArrays.
+     */
+    private static class Frame<T extends Comparable<? super T>> {
+        private final BSTNode<T> node;
+        private final int depth;
+        private final int parentId;
+        private int leftChildId = -1;
+
+        /**
+         * Constructs a frame.
+         * @param node the node
+         * @param depth the depth of the node
+         * @param parentId the id of the parent if already known, otherwise -1
+         */
+        Frame(BSTNode<T> node, int depth, int parentId) {
+            this.node = node;
+            this.depth = depth;
+            this.parentId = parentId;
+        }
+    }
+
+    /**
+     * Fills data, depth and parent by an iterative in-order traversal.
+     *
+     * A right child's parent already has an id when the child is pushed. A
+     * left child gets its id before its parent does, so the parent's frame
+     * remembers the child and links it once the parent's id is known.
+     * @param root the root of the tree
+     */
+    private void buildArrays(BSTNode<T> root) {
+        Deque<Frame<T>> stack = new ArrayDeque<>();
+        pushLeft(stack, root, 0, -1);
+        int id = 0;
+        while (!stack.isEmpty()) {
+            Frame<T> frame = stack.pop();
+            data[id] = frame.node.getData();
+            depth[id] = frame.depth;
+            parent[id] = frame.parentId;
+            if (frame.leftChildId != -1) {
+                parent[frame.leftChildId] = id;
+            }
+            if (!stack.isEmpty() && stack.peek().node.getLeft() == frame.node) {
+                stack.peek().leftChildId = id;
+            }
+            pushLeft(stack, frame.node.getRight(), frame.depth + 1, id);
+            id++;
+        }
+    }
+
+    /**
+     * Pushes curNode and its chain of left children onto the stack.
+     * @param stack the stack to push onto
+     * @param curNode root of the subtree to descend
+     * @param curDepth depth of curNode
+     * @param parentId id of curNode's parent, or -1 if it is not known yet
+     */
+    private void pushLeft(Deque<Frame<T>> stack, BSTNode<T> curNode, int curDepth, int parentId) {
+        while (curNode != null) {
+            stack.push(new Frame<>(curNode, curDepth, parentId));
+            parentId = -1;
+            curNode = curNode.getLeft();
+            curDepth++;
+        }
+    }
+
+    /**
+     * Builds the sparse table over the shallowest id of each block.
+     * sparse[k][b] is the shallowest id in blocks b to b + 2^k - 1.
+     * @param n the number of nodes
+     * @return the sparse table
+     */
+    private int[][] buildSparseTable(int n) {
+        int blocks = (n + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        int levels = 1;
+        while ((1 << levels) <= blocks) {
+            levels++;
+        }
+        int[][] table = new int[levels][];
+        table[0] = new int[blocks];
+        for (int b = 0; b < blocks; b++) {
+            table[0][b] = scanMin(b * BLOCK_SIZE, Math.min(n, (b + 1) * BLOCK_SIZE) - 1);
+        }
+        for (int k = 1; k < levels; k++) {
+            int len = blocks - (1 << k) + 1;
+            table[k] = new int[len];
+            for (int b = 0; b < len; b++) {
+                table[k][b] = shallower(table[k - 1][b], table[k - 1][b + (1 << (k - 1))]);
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Returns the deepest common ancestor of data1 and data2.
+     *
+     * Must be O(log n) to find both nodes and O(1) to find the ancestor.
+     *
+     * @param data1 the first data
+     * @param data2 the second data
+     * @return the data of the deepest common ancestor
+     * @throws java.lang.IllegalArgumentException if either data1 or data2 is
+     *                                            null
+     * @throws java.util.NoSuchElementException   if data1 or data2 is not in
+     *                                            the tree
+     */
+    public T dca(T data1, T data2) {
+        return data[dcaId(idOf(data1), idOf(data2))];
+    }
+
+    /**
+     * Returns the number of edges on the path between data1 and data2.
+     *
+     * Must be O(log n).
+     *
+     * @param data1 the first data
+     * @param data2 the second data
+     * @return the length of the path between the two data
+     * @throws java.lang.IllegalArgumentException if either data1 or data2 is
+     *                                            null
+     * @throws java.util.NoSuchElementException   if data1 or data2 is not in
+     *                                            the tree
+     */
+    public int distance(T data1, T data2) {
+        int id1 = idOf(data1);
+        int id2 = idOf(data2);
+        return depth[id1] + depth[id2] - 2 * depth[dcaId(id1, id2)];
+    }
+
+    /**
+     * Finds the path between two elements in the tree, from data1 to data2,
+     * inclusive of both. Returns the same list as BST.findPathBetween did
+     * when the query engine was built.
+     *
+     * Must be O(log n + k), where k is the length of the path.
+     *
+     * @param data1 the data to start the path from
+     * @param data2 the data to end the path on
+     * @return the unique path between the two elements
+     * @throws java.lang.IllegalArgumentException if either data1 or data2 is
+     *                                            null
+     * @throws java.util.NoSuchElementException   if data1 or data2 is not in
+     *                                            the tree
+     */
+    public List<T> findPathBetween(T data1, T data2) {
+        int id1 = idOf(data1);
+        int id2 = idOf(data2);
+        int dca = dcaId(id1, id2);
+        int up = depth[id1] - depth[dca];
+        int down = depth[id2] - depth[dca];
+        List<T> path = new ArrayList<>(Collections.<T>nCopies(up + down + 1, null));
+        for (int i = 0, curId = id1; i <= up; i++, curId = parent[curId]) {
+            path.set(i, data[curId]);
+        }
+        for (int i = up + down, curId = id2; i > up; i--, curId = parent[curId]) {
+            path.set(i, data[curId]);
+        }
+        return path;
+    }
+
+    /**
+     * Finds the id of the node holding the given data by binary search.
+     * @param target the data to search for
+     * @return the id of the node
+     */
+    private int idOf(T target) {
+        if (target == null) {
+            throw new IllegalArgumentException("Either data1 or data2 is null");
+        }
+        int lo = 0;
+        int hi = data.length - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int cmp = target.compareTo(data[mid]);
+            if (cmp < 0) {
+                hi = mid - 1;
+            } else if (cmp > 0) {
+                lo = mid + 1;
+            } else {
+                return mid;
+            }
+        }
+        throw new NoSuchElementException("Data1 or data2 is not in the tree");
+    }
+
+    /**
+     * Returns the shallowest id between two ids, which is their DCA.
+     * @param id1 the first id
+     * @param id2 the second id
+     * @return the id of the deepest common ancestor
+     */
+    private int dcaId(int id1, int id2) {
+        int lo = Math.min(id1, id2);
+        int hi = Math.max(id1, id2);
+        int loBlock = lo / BLOCK_SIZE;
+        int hiBlock = hi / BLOCK_SIZE;
+        if (loBlock == hiBlock) {
+            return scanMin(lo, hi);
+        }
+        int best = shallower(scanMin(lo, (loBlock + 1) * BLOCK_SIZE - 1), scanMin(hiBlock * BLOCK_SIZE, hi));
+        if (hiBlock - loBlock > 1) {
+            int first = loBlock + 1;
+            int last = hiBlock - 1;
+            int k = 31 - Integer.numberOfLeadingZeros(last - first + 1);
+            best = shallower(best, shallower(sparse[k][first], sparse[k][last - (1 << k) + 1]));
+        }
+        return best;
+    }
+
+    /**
+     * Scans a range of ids for the shallowest one.
+     * @param lo the first id, inclusive
+     * @param hi the last id, inclusive
+     * @return the id with the smallest depth in the range
+     */
+    private int scanMin(int lo, int hi) {
+        int best = lo;
+        for (int i = lo + 1; i <= hi; i++) {
+            if (depth[i] < depth[best]) {
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Returns whichever of two ids is shallower.
+     * @param id1 the first id
+     * @param id2 the second id
+     * @return the id with the smaller depth
+     */
+    private int shallower(int id1, int id2) {
+        return depth[id2] < depth[id1] ? id2 : id1;
+    }
+
+    /**
+     * Returns the number of nodes in the snapshot.
+     *
+     * @return the size of the snapshot
+     */
+    public int size() {
+        return data.length;
+    }
+}
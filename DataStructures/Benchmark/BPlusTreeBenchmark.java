@@ -0,0 +1,157 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.function.BiFunction;
+import java.util.function.Predicate;
+
+/**
+ * Compares BPlusTree with AVL on random point lookups and on short range
+ * scans, and prints the throughput of each.
+ *
+ * Every class lives in the default package of its own folder, so compile the
+ * trees together with this file, for example:
+ *
+ * javac -d out DataStructures/AVL/*.java DataStructures/BPlusTree/*.java
+ *     DataStructures/Benchmark/BPlusTreeBenchmark.java
+ * java -Xmx16g -cp out BPlusTreeBenchmark [keys] [operations] [scanLength]
+ *     [fanout]
+ *
+ * The keys are the even numbers below 2 * keys, inserted in random order.
+ * Every point lookup searches for a random number below 2 * keys, so about
+ * half of them miss. Every scan starts at a random key in the tree and reads
+ * the next scanLength keys through range(from, to). At 100M keys the boxed
+ * Integers alone take several GB, so give the JVM enough heap.
+ */
+public class BPlusTreeBenchmark {
+
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int MEASURED_ROUNDS = 5;
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args optional number of keys, number of lookups and of scans,
+     *             keys read per scan and B+-tree fanout, defaulting to
+     *             1000000, 5000000, 100 and BPlusTree.DEFAULT_FANOUT
+     */
+    public static void main(String[] args) {
+        int keys = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int operations = args.length > 1 ? Integer.parseInt(args[1]) : 5_000_000;
+        int scanLength = args.length > 2 ? Integer.parseInt(args[2]) : 100;
+        int fanout = args.length > 3 ? Integer.parseInt(args[3]) : BPlusTree.DEFAULT_FANOUT;
+        Random rand = new Random(42);
+
+        List<Integer> data = new ArrayList<>(keys);
+        for (int i = 0; i < keys; i++) {
+            data.add(i * 2);
+        }
+        Collections.shuffle(data, rand);
+
+        AVL<Integer> avl = new AVL<>(data);
+        BPlusTree<Integer> bPlusTree = new BPlusTree<>(fanout);
+        for (Integer key : data) {
+            bPlusTree.add(key);
+        }
+        data = null;
+
+        Integer[] lookups = new Integer[operations];
+        for (int i = 0; i < operations; i++) {
+            lookups[i] = rand.nextInt(keys * 2);
+        }
+        int scans = Math.max(1, operations / scanLength);
+        Integer[] starts = new Integer[scans];
+        for (int i = 0; i < scans; i++) {
+            starts[i] = rand.nextInt(keys) * 2;
+        }
+
+        System.out.printf("%d keys, %d lookups, %d scans of %d keys, fanout %d%n",
+                keys, operations, scans, scanLength, fanout);
+        System.out.printf("%-10s %8s %20s %20s%n", "tree", "height", "lookups (Mops/s)", "scans (Mkeys/s)");
+        report("AVL", avl.height(), avl::contains, avl::range, lookups, starts, scanLength);
+        report("B+ tree", bPlusTree.height(), bPlusTree::contains, bPlusTree::range, lookups, starts, scanLength);
+    }
+
+    /**
+     * Measures and prints one row of the results.
+     * @param name the name of the tree
+     * @param height the height of the tree
+     * @param lookup the lookup to run for every key of the lookup trace
+     * @param range the range scan over [from, to)
+     * @param lookups the keys to look up
+     * @param starts the first key of every scan
+     * @param scanLength the number of keys read per scan
+     */
+    private static void report(String name, int height, Predicate<Integer> lookup,
+                               BiFunction<Integer, Integer, Iterator<Integer>> range,
+                               Integer[] lookups, Integer[] starts, int scanLength) {
+        System.out.printf("%-10s %8d %20.2f %20.2f%n", name, height,
+                lookupThroughput(lookup, lookups), scanThroughput(range, starts, scanLength));
+    }
+
+    /**
+     * Replays the lookups WARMUP_ROUNDS times unmeasured, then
+     * MEASURED_ROUNDS times measured.
+     * @param lookup the lookup to run for every key
+     * @param trace the keys to look up
+     * @return the best throughput of the measured rounds in million lookups
+     * per second
+     */
+    private static double lookupThroughput(Predicate<Integer> lookup, Integer[] trace) {
+        double best = 0;
+        int hits = 0;
+        for (int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (Integer key : trace) {
+                if (lookup.test(key)) {
+                    hits++;
+                }
+            }
+            long elapsed = System.nanoTime() - start;
+            if (round >= WARMUP_ROUNDS) {
+                best = Math.max(best, trace.length * 1000.0 / elapsed);
+            }
+        }
+        if (hits == 0) {
+            System.out.println("no lookup hit");
+        }
+        return best;
+    }
+
+    /**
+     * Runs the scans WARMUP_ROUNDS times unmeasured, then MEASURED_ROUNDS
+     * times measured. Keys are spaced two apart, so the scan from k up to
+     * k + 2 * scanLength, exclusive, reads scanLength keys unless it runs off
+     * the end of the tree.
+     * @param range the range scan over [from, to)
+     * @param starts the first key of every scan
+     * @param scanLength the number of keys read per scan
+     * @return the best throughput of the measured rounds in million keys read
+     * per second
+     */
+    private static double scanThroughput(BiFunction<Integer, Integer, Iterator<Integer>> range,
+                                         Integer[] starts, int scanLength) {
+        double best = 0;
+        long sum = 0;
+        for (int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++) {
+            long read = 0;
+            long start = System.nanoTime();
+            for (Integer from : starts) {
+                Iterator<Integer> it = range.apply(from, from + 2 * scanLength);
+                while (it.hasNext()) {
+                    sum += it.next();
+                    read++;
+                }
+            }
+            long elapsed = System.nanoTime() - start;
+            if (round >= WARMUP_ROUNDS) {
+                best = Math.max(best, read * 1000.0 / elapsed);
+            }
+        }
+        if (sum == 0) {
+            System.out.println("no key scanned");
+        }
+        return best;
+    }
+}
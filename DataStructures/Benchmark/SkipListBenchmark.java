@@ -0,0 +1,141 @@
+import java.util.Random;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Measures how the throughput of ConcurrentSkipList scales with the number of
+ * threads on a mixed workload, next to java.util.concurrent's
+ * ConcurrentSkipListSet as a baseline.
+ *
+ * Every class lives in the default package of its own folder, so compile the
+ * skip list together with this file, for example:
+ *
+ * javac -d out DataStructures/SkipList/*.java
+ *     DataStructures/Benchmark/SkipListBenchmark.java
+ * java -cp out SkipListBenchmark [keys] [operations] [updatePercent]
+ *     [maxThreads]
+ *
+ * The set starts with every even number below 2 * keys. Every operation picks
+ * a random number below 2 * keys; updatePercent of them toggle a number
+ * (remove it if present, add it otherwise) and the rest call contains. Thread
+ * t only toggles numbers equal to t modulo the thread count, so no other
+ * thread can change a number between its contains check and the update. The
+ * thread count doubles from 1 up to maxThreads, and every row reports the
+ * total throughput of all threads. Scaling is bounded by the number of cores,
+ * so run it on a machine with at least maxThreads of them.
+ */
+public class SkipListBenchmark {
+
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int MEASURED_ROUNDS = 5;
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args optional number of keys, operations per thread, percentage
+     *             of updates and largest thread count, defaulting to
+     *             1000000, 1000000, 10 and the number of available processors
+     * @throws java.lang.InterruptedException if interrupted while waiting for
+     *                                        the worker threads
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int keys = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int operations = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+        int updatePercent = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        int maxThreads = args.length > 3 ? Integer.parseInt(args[3])
+                : Runtime.getRuntime().availableProcessors();
+        Random rand = new Random(42);
+
+        int[][] traces = new int[maxThreads][operations];
+        for (int[] trace : traces) {
+            for (int i = 0; i < operations; i++) {
+                trace[i] = rand.nextInt(keys * 2);
+            }
+        }
+
+        ConcurrentSkipList<Integer> skipList = new ConcurrentSkipList<>();
+        ConcurrentSkipListSet<Integer> jdkSet = new ConcurrentSkipListSet<>();
+        for (int i = 0; i < keys; i++) {
+            skipList.add(i * 2);
+            jdkSet.add(i * 2);
+        }
+
+        System.out.printf("%d keys, %d operations per thread, %d%% updates, %d available processors%n",
+                keys, operations, updatePercent, Runtime.getRuntime().availableProcessors());
+        System.out.printf("%-8s %30s %30s%n", "threads", "ConcurrentSkipList (Mops/s)",
+                "ConcurrentSkipListSet (Mops/s)");
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            System.out.printf("%-8d %30.2f %30.2f%n", threads,
+                    throughput(skipList::contains, skipList::add, skipList::remove,
+                            traces, threads, updatePercent),
+                    throughput(jdkSet::contains, jdkSet::add, jdkSet::remove,
+                            traces, threads, updatePercent));
+        }
+    }
+
+    /**
+     * Runs the workload on the given number of threads WARMUP_ROUNDS times
+     * unmeasured, then MEASURED_ROUNDS times measured. Thread t replays
+     * traces[t].
+     * @param contains the membership test
+     * @param add the insertion
+     * @param remove the removal
+     * @param traces the numbers every thread operates on
+     * @param threads the number of threads
+     * @param updatePercent the percentage of operations that toggle a number
+     * @return the best throughput of the measured rounds in million
+     * operations per second, summed over all threads
+     * @throws java.lang.InterruptedException if interrupted while waiting for
+     *                                        the worker threads
+     */
+    private static double throughput(Predicate<Integer> contains, Consumer<Integer> add,
+                                     Consumer<Integer> remove, int[][] traces, int threads,
+                                     int updatePercent) throws InterruptedException {
+        double best = 0;
+        long[] hits = new long[threads];
+        for (int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++) {
+            Thread[] workers = new Thread[threads];
+            for (int t = 0; t < threads; t++) {
+                int id = t;
+                workers[t] = new Thread(() -> {
+                    int[] trace = traces[id];
+                    long found = 0;
+                    for (int i = 0; i < trace.length; i++) {
+                        int key = trace[i];
+                        if (i % 100 < updatePercent) {
+                            key = key - key % threads + id;
+                            if (contains.test(key)) {
+                                remove.accept(key);
+                            } else {
+                                add.accept(key);
+                            }
+                        } else if (contains.test(key)) {
+                            found++;
+                        }
+                    }
+                    hits[id] += found;
+                });
+            }
+            long start = System.nanoTime();
+            for (Thread worker : workers) {
+                worker.start();
+            }
+            for (Thread worker : workers) {
+                worker.join();
+            }
+            long elapsed = System.nanoTime() - start;
+            if (round >= WARMUP_ROUNDS) {
+                best = Math.max(best, (double) threads * traces[0].length * 1000.0 / elapsed);
+            }
+        }
+        long total = 0;
+        for (long h : hits) {
+            total += h;
+        }
+        if (total == 0) {
+            System.out.println("no lookup hit");
+        }
+        return best;
+    }
+}
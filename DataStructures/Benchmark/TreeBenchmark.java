@@ -0,0 +1,151 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Predicate;
+
+/**
+ * Replays uniform and Zipfian lookup traces against BST, AVL, SplayTree and
+ * Treap and prints the lookup throughput of each.
+ *
+ * Every class lives in the default package of its own folder, so compile the
+ * trees together with this file, for example:
+ *
+ * javac -d out DataStructures/BST/*.java DataStructures/AVL/*.java
+ *     DataStructures/SplayTree/*.java DataStructures/Treap/*.java
+ *     DataStructures/Benchmark/TreeBenchmark.java
+ * java -cp out TreeBenchmark [keys] [lookups] [zipfExponent]
+ *
+ * The keys are inserted in random order so the plain BST is not degenerate.
+ * In the Zipfian trace the i-th most popular key, chosen at random, is looked
+ * up with probability proportional to 1 / i^s.
+ */
+public class TreeBenchmark {
+
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int MEASURED_ROUNDS = 5;
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args optional number of keys, number of lookups per trace and
+     *             Zipf exponent, defaulting to 1000000, 5000000 and 0.99
+     */
+    public static void main(String[] args) {
+        int keys = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int lookups = args.length > 1 ? Integer.parseInt(args[1]) : 5_000_000;
+        double exponent = args.length > 2 ? Double.parseDouble(args[2]) : 0.99;
+        Random rand = new Random(42);
+
+        List<Integer> data = new ArrayList<>(keys);
+        for (int i = 0; i < keys; i++) {
+            data.add(i * 2);
+        }
+        Collections.shuffle(data, rand);
+
+        BST<Integer> bst = new BST<>(data);
+        AVL<Integer> avl = new AVL<>(data);
+        SplayTree<Integer> splay = new SplayTree<>(data);
+        Treap<Integer> treap = new Treap<>(data);
+
+        Integer[] uniform = uniformTrace(data, lookups, rand);
+        Integer[] zipf = zipfTrace(data, lookups, exponent, rand);
+
+        System.out.printf("%d keys, %d lookups per trace, zipf s = %.2f%n", keys, lookups, exponent);
+        System.out.printf("%-10s %18s %18s%n", "tree", "uniform (Mops/s)", "zipf (Mops/s)");
+        report("BST", bst::contains, uniform, zipf);
+        report("AVL", avl::contains, uniform, zipf);
+        report("Splay", splay::contains, uniform, zipf);
+        report("Treap", treap::contains, uniform, zipf);
+    }
+
+    /**
+     * Measures and prints one row of the results.
+     * @param name the name of the tree
+     * @param lookup the lookup to run for every key of a trace
+     * @param uniform the uniform trace
+     * @param zipf the Zipfian trace
+     */
+    private static void report(String name, Predicate<Integer> lookup, Integer[] uniform, Integer[] zipf) {
+        System.out.printf("%-10s %18.2f %18.2f%n", name, throughput(lookup, uniform), throughput(lookup, zipf));
+    }
+
+    /**
+     * Replays a trace WARMUP_ROUNDS times unmeasured, then MEASURED_ROUNDS
+     * times measured.
+     * @param lookup the lookup to run for every key of the trace
+     * @param trace the keys to look up
+     * @return the best throughput of the measured rounds in million lookups
+     * per second
+     */
+    private static double throughput(Predicate<Integer> lookup, Integer[] trace) {
+        double best = 0;
+        int hits = 0;
+        for (int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (Integer key : trace) {
+                if (lookup.test(key)) {
+                    hits++;
+                }
+            }
+            long elapsed = System.nanoTime() - start;
+            if (round >= WARMUP_ROUNDS) {
+                best = Math.max(best, trace.length * 1000.0 / elapsed);
+            }
+        }
+        if (hits == 0) {
+            System.out.println("no lookup hit");
+        }
+        return best;
+    }
+
+    /**
+     * Builds a trace where every key is equally likely.
+     * @param data the keys in the trees
+     * @param lookups the length of the trace
+     * @param rand the Random object used to draw keys
+     * @return the trace
+     */
+    private static Integer[] uniformTrace(List<Integer> data, int lookups, Random rand) {
+        Integer[] trace = new Integer[lookups];
+        for (int i = 0; i < lookups; i++) {
+            trace[i] = data.get(rand.nextInt(data.size()));
+        }
+        return trace;
+    }
+
+    /**
+     * Builds a Zipfian trace by inverting the cumulative distribution with
+     * a binary search. data is already shuffled, so its order is used as the
+     * popularity ranking.
+     * @param data the keys in the trees
+     * @param lookups the length of the trace
+     * @param exponent the Zipf exponent s
+     * @param rand the Random object used to draw keys
+     * @return the trace
+     */
+    private static Integer[] zipfTrace(List<Integer> data, int lookups, double exponent, Random rand) {
+        double[] cdf = new double[data.size()];
+        double sum = 0;
+        for (int i = 0; i < cdf.length; i++) {
+            sum += 1 / Math.pow(i + 1, exponent);
+            cdf[i] = sum;
+        }
+        Integer[] trace = new Integer[lookups];
+        for (int i = 0; i < lookups; i++) {
+            double target = rand.nextDouble() * sum;
+            int lo = 0;
+            int hi = cdf.length - 1;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (cdf[mid] < target) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            trace[i] = data.get(lo);
+        }
+        return trace;
+    }
+}
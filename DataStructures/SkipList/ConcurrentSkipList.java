@@ -0,0 +1,375 @@
+import java.util.Collection;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A thread-safe ordered set backed by a lazy skip list.
+ *
+ * Reads (get, contains, predecessor) never lock: they walk the list and only
+ * look at the marked and fullyLinked flags of the nodes they land on. Writers
+ * lock just the predecessors of the node they splice in or out, so writers on
+ * different parts of the list run in parallel. get and contains never wait
+ * for a writer; predecessor may retry while a writer is linking or unlinking
+ * the node just before its argument.
+ *
+ * A node is logically in the set once it is fully linked and until it is
+ * marked, which is what makes every operation linearizable.
+ *
+ * @param <T> the type of data in the skip list
+ */
+public class ConcurrentSkipList<T extends Comparable<? super T>> {
+
+    /**
+     * The highest level of the skip list. Levels are drawn with probability
+     * 1/2 each, so this supports far more than 2^31 elements.
+     */
+    public static final int MAX_LEVEL = 31;
+
+    private final ConcurrentSkipListNode<T> head = new ConcurrentSkipListNode<>(null, MAX_LEVEL);
+    private final ConcurrentSkipListNode<T> tail = new ConcurrentSkipListNode<>(null, MAX_LEVEL);
+    private final AtomicInteger size = new AtomicInteger();
+
+    /**
+     * Constructs a new, empty ConcurrentSkipList.
+     */
+    public ConcurrentSkipList() {
+        for (int level = 0; level <= MAX_LEVEL; level++) {
+            head.setNext(level, tail);
+        }
+        head.setFullyLinked();
+        tail.setFullyLinked();
+    }
+
+    /**
+     * Constructs a new ConcurrentSkipList with the data in the Collection,
+     * added in the same order it is in the Collection.
+     *
+     * @param data the data to add
+     * @throws java.lang.IllegalArgumentException if data or any element in data
+     *                                            is null
+     */
+    public ConcurrentSkipList(Collection<T> data) {
+        this();
+        if (data == null || data.contains(null)) {
+            throw new IllegalArgumentException("data or any element in data cannot be null");
+        }
+        for (T element : data) {
+            add(element);
+        }
+    }
+
+    /**
+     * Adds the data to the skip list.
+     *
+     * If the data is already in the skip list, then nothing should be done
+     * (the duplicate shouldn't get added, and size should not be
+     * incremented).
+     *
+     * Expected O(log n).
+     *
+     * @param data the data to add
+     * @throws java.lang.IllegalArgumentException if data is null
+     */
+    public void add(T data) {
+        if (data == null) {
+            throw new IllegalArgumentException("data is null");
+        }
+        int topLevel = randomLevel();
+        ConcurrentSkipListNode<T>[] preds = newNodeArray();
+        ConcurrentSkipListNode<T>[] succs = newNodeArray();
+        while (true) {
+            int levelFound = find(data, preds, succs);
+            if (levelFound != -1) {
+                ConcurrentSkipListNode<T> found = succs[levelFound];
+                if (!found.isMarked()) {
+                    while (!found.isFullyLinked()) {
+                        Thread.onSpinWait();
+                    }
+                    return;
+                }
+                continue;
+            }
+            int highestLocked = -1;
+            try {
+                boolean valid = true;
+                ConcurrentSkipListNode<T> prevPred = null;
+                for (int level = 0; valid && level <= topLevel; level++) {
+                    ConcurrentSkipListNode<T> pred = preds[level];
+                    ConcurrentSkipListNode<T> succ = succs[level];
+                    if (pred != prevPred) {
+                        pred.lock();
+                        highestLocked = level;
+                        prevPred = pred;
+                    }
+                    valid = !pred.isMarked() && !succ.isMarked() && pred.getNext(level) == succ;
+                }
+                if (!valid) {
+                    continue;
+                }
+                ConcurrentSkipListNode<T> newNode = new ConcurrentSkipListNode<>(data, topLevel);
+                for (int level = 0; level <= topLevel; level++) {
+                    newNode.setNext(level, succs[level]);
+                }
+                for (int level = 0; level <= topLevel; level++) {
+                    preds[level].setNext(level, newNode);
+                }
+                newNode.setFullyLinked();
+                size.incrementAndGet();
+                return;
+            } finally {
+                unlockPreds(preds, highestLocked);
+            }
+        }
+    }
+
+    /**
+     * Removes and returns the data from the skip list matching the given
+     * parameter.
+     *
+     * The node is first marked, which removes it logically, and then
+     * unlinked from the top level down.
+     *
+     * Do not return the same data that was passed in. Return the data that
+     * was stored in the skip list.
+     *
+     * Expected O(log n).
+     *
+     * @param data the data to remove
+     * @return the data that was removed
+     * @throws java.lang.IllegalArgumentException if data is null
+     * @throws java.util.NoSuchElementException   if the data is not in the
+     *                                            skip list
+     */
+    public T remove(T data) {
+        if (data == null) {
+            throw new IllegalArgumentException("data is null");
+        }
+        ConcurrentSkipListNode<T> victim = null;
+        boolean isMarked = false;
+        int topLevel = -1;
+        ConcurrentSkipListNode<T>[] preds = newNodeArray();
+        ConcurrentSkipListNode<T>[] succs = newNodeArray();
+        while (true) {
+            int levelFound = find(data, preds, succs);
+            if (levelFound != -1) {
+                victim = succs[levelFound];
+            }
+            if (!isMarked && (levelFound == -1 || !victim.isFullyLinked()
+                    || victim.getTopLevel() != levelFound || victim.isMarked())) {
+                throw new NoSuchElementException("The data is not in the skip list");
+            }
+            if (!isMarked) {
+                topLevel = victim.getTopLevel();
+                victim.lock();
+                if (victim.isMarked()) {
+                    victim.unlock();
+                    throw new NoSuchElementException("The data is not in the skip list");
+                }
+                victim.mark();
+                isMarked = true;
+            }
+            int highestLocked = -1;
+            try {
+                boolean valid = true;
+                ConcurrentSkipListNode<T> prevPred = null;
+                for (int level = 0; valid && level <= topLevel; level++) {
+                    ConcurrentSkipListNode<T> pred = preds[level];
+                    if (pred != prevPred) {
+                        pred.lock();
+                        highestLocked = level;
+                        prevPred = pred;
+                    }
+                    valid = !pred.isMarked() && pred.getNext(level) == victim;
+                }
+                if (!valid) {
+                    continue;
+                }
+                for (int level = topLevel; level >= 0; level--) {
+                    preds[level].setNext(level, victim.getNext(level));
+                }
+                victim.unlock();
+                size.decrementAndGet();
+                return victim.getData();
+            } finally {
+                unlockPreds(preds, highestLocked);
+            }
+        }
+    }
+
+    /**
+     * Returns the data from the skip list matching the given parameter.
+     *
+     * Never locks. Expected O(log n).
+     *
+     * @param data the data to search for
+     * @return the data in the skip list equal to the parameter
+     * @throws java.lang.IllegalArgumentException if data is null
+     * @throws java.util.NoSuchElementException   if the data is not in the
+     *                                            skip list
+     */
+    public T get(T data) {
+        if (data == null) {
+            throw new IllegalArgumentException("data is null");
+        }
+        ConcurrentSkipListNode<T> found = findNode(data);
+        if (found == null) {
+            throw new NoSuchElementException("The data is not in the skip list");
+        }
+        return found.getData();
+    }
+
+    /**
+     * Returns whether or not data matching the given parameter is contained
+     * within the skip list.
+     *
+     * Never locks. Expected O(log n).
+     *
+     * @param data the data to search for
+     * @return true if the parameter is contained within the skip list, false
+     * otherwise
+     * @throws java.lang.IllegalArgumentException if data is null
+     */
+    public boolean contains(T data) {
+        if (data == null) {
+            throw new IllegalArgumentException("data is null");
+        }
+        return findNode(data) != null;
+    }
+
+    /**
+     * Returns the largest data in the skip list that is smaller than the
+     * given data, which must itself be in the skip list.
+     *
+     * Never locks, but it can wait: while the node just before data is
+     * marked or not yet fully linked, it is neither safe to return nor to
+     * skip, so the search is retried until the writer that owns that node
+     * finishes. Under heavy updates around data this spins. Expected
+     * O(log n) without contention.
+     *
+     * @param data the data to find the predecessor of
+     * @return the predecessor of data. If there is no smaller data than the
+     * one given, return null.
+     * @throws java.lang.IllegalArgumentException if the data is null
+     * @throws java.util.NoSuchElementException   if the data is not in the
+     *                                            skip list
+     */
+    public T predecessor(T data) {
+        if (data == null) {
+            throw new IllegalArgumentException("Cannot find predecessor with null data");
+        }
+        ConcurrentSkipListNode<T>[] preds = newNodeArray();
+        ConcurrentSkipListNode<T>[] succs = newNodeArray();
+        while (true) {
+            int levelFound = find(data, preds, succs);
+            if (levelFound == -1 || !isPresent(succs[levelFound])) {
+                throw new NoSuchElementException("The data is not in the skip list");
+            }
+            ConcurrentSkipListNode<T> pred = preds[0];
+            if (pred == head) {
+                return null;
+            }
+            if (isPresent(pred)) {
+                return pred.getData();
+            }
+        }
+    }
+
+    /**
+     * Finds the node holding the given data if it is logically present.
+     * @param data the data to search for
+     * @return the node, or null if the data is not in the skip list
+     */
+    private ConcurrentSkipListNode<T> findNode(T data) {
+        ConcurrentSkipListNode<T> pred = head;
+        for (int level = MAX_LEVEL; level >= 0; level--) {
+            ConcurrentSkipListNode<T> curNode = pred.getNext(level);
+            while (curNode != tail && curNode.getData().compareTo(data) < 0) {
+                pred = curNode;
+                curNode = pred.getNext(level);
+            }
+            if (curNode != tail && curNode.getData().compareTo(data) == 0) {
+                return isPresent(curNode) ? curNode : null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Walks the skip list, recording at every level the last node smaller
+     * than data and the node after it.
+     * @param data the data to search for
+     * @param preds array to fill with the predecessors at each level
+     * @param succs array to fill with the successors at each level
+     * @return the highest level at which data was found, or -1
+     */
+    private int find(T data, ConcurrentSkipListNode<T>[] preds, ConcurrentSkipListNode<T>[] succs) {
+        int levelFound = -1;
+        ConcurrentSkipListNode<T> pred = head;
+        for (int level = MAX_LEVEL; level >= 0; level--) {
+            ConcurrentSkipListNode<T> curNode = pred.getNext(level);
+            while (curNode != tail && curNode.getData().compareTo(data) < 0) {
+                pred = curNode;
+                curNode = pred.getNext(level);
+            }
+            if (levelFound == -1 && curNode != tail && curNode.getData().compareTo(data) == 0) {
+                levelFound = level;
+            }
+            preds[level] = pred;
+            succs[level] = curNode;
+        }
+        return levelFound;
+    }
+
+    /**
+     * Allocates an array with one slot per level for find to fill.
+     * @return the new array
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private ConcurrentSkipListNode<T>[] newNodeArray() {
+        return (ConcurrentSkipListNode<T>[]) new ConcurrentSkipListNode[MAX_LEVEL + 1];
+    }
+
+    /**
+     * Returns whether a node is logically in the skip list.
+     * @param node the node to check
+     * @return true if the node is fully linked and not marked
+     */
+    private boolean isPresent(ConcurrentSkipListNode<T> node) {
+        return node.isFullyLinked() && !node.isMarked();
+    }
+
+    /**
+     * Unlocks the distinct predecessors locked by add or remove.
+     * @param preds the predecessors at each level
+     * @param highestLocked the highest level whose predecessor was locked
+     */
+    private void unlockPreds(ConcurrentSkipListNode<T>[] preds, int highestLocked) {
+        ConcurrentSkipListNode<T> prevPred = null;
+        for (int level = 0; level <= highestLocked; level++) {
+            if (preds[level] != prevPred) {
+                preds[level].unlock();
+                prevPred = preds[level];
+            }
+        }
+    }
+
+    /**
+     * Draws a level from a geometric distribution with p = 1/2.
+     * @return a level between 0 and MAX_LEVEL
+     */
+    private int randomLevel() {
+        int bits = ThreadLocalRandom.current().nextInt();
+        return Math.min(Integer.numberOfTrailingZeros(bits), MAX_LEVEL);
+    }
+
+    /**
+     * Returns the number of data in the skip list. Under concurrent updates
+     * this is a snapshot that may already be stale.
+     *
+     * @return the size of the skip list
+     */
+    public int size() {
+        return size.get();
+    }
+}
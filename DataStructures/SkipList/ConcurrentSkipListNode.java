@@ -0,0 +1,113 @@
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class ConcurrentSkipListNode<T extends Comparable<? super T>> {
+
+    private final T data;
+    private final int topLevel;
+    private final AtomicReferenceArray<ConcurrentSkipListNode<T>> next;
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile boolean marked;
+    private volatile boolean fullyLinked;
+
+    /**
+     * Constructs a ConcurrentSkipListNode with the given data.
+     *
+     * @param data     the data stored in the new node, null for sentinels
+     * @param topLevel the highest level the node is linked at
+     */
+    ConcurrentSkipListNode(T data, int topLevel) {
+        this.data = data;
+        this.topLevel = topLevel;
+        this.next = new AtomicReferenceArray<>(topLevel + 1);
+    }
+
+    /**
+     * Gets the data.
+     *
+     * @return the data
+     */
+    T getData() {
+        return data;
+    }
+
+    /**
+     * Gets the highest level the node is linked at.
+     *
+     * @return the top level
+     */
+    int getTopLevel() {
+        return topLevel;
+    }
+
+    /**
+     * Gets the next node at the given level.
+     *
+     * @param level the level
+     * @return the next node at that level
+     */
+    ConcurrentSkipListNode<T> getNext(int level) {
+        return next.get(level);
+    }
+
+    /**
+     * Sets the next node at the given level.
+     *
+     * @param level the level
+     * @param node  the new next node at that level
+     */
+    void setNext(int level, ConcurrentSkipListNode<T> node) {
+        next.set(level, node);
+    }
+
+    /**
+     * Acquires the node's lock.
+     */
+    void lock() {
+        lock.lock();
+    }
+
+    /**
+     * Releases the node's lock.
+     */
+    void unlock() {
+        lock.unlock();
+    }
+
+    /**
+     * Gets whether the node has been logically removed.
+     *
+     * @return true if the node is marked for removal
+     */
+    boolean isMarked() {
+        return marked;
+    }
+
+    /**
+     * Marks the node as logically removed.
+     */
+    void mark() {
+        marked = true;
+    }
+
+    /**
+     * Gets whether the node is linked at every one of its levels.
+     *
+     * @return true if the node is fully linked
+     */
+    boolean isFullyLinked() {
+        return fullyLinked;
+    }
+
+    /**
+     * Marks the node as linked at every one of its levels.
+     */
+    void setFullyLinked() {
+        fullyLinked = true;
+    }
+
+    @Override
+    public String toString() {
+        return "Node containing: " + data;
+    }
+}
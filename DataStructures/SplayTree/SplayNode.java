@@ -0,0 +1,74 @@
+public class SplayNode<T extends Comparable<? super T>> {
+
+    private T data;
+    private SplayNode<T> left;
+    private SplayNode<T> right;
+
+    /**
+     * Constructs a SplayNode with the given data.
+     *
+     * @param data the data stored in the new node
+     */
+    SplayNode(T data) {
+        this.data = data;
+    }
+
+    /**
+     * Gets the data.
+     *
+     * @return the data
+     */
+    T getData() {
+        return data;
+    }
+
+    /**
+     * Gets the left child.
+     *
+     * @return the left child
+     */
+    SplayNode<T> getLeft() {
+        return left;
+    }
+
+    /**
+     * Gets the right child.
+     *
+     * @return the right child
+     */
+    SplayNode<T> getRight() {
+        return right;
+    }
+
+    /**
+     * Sets the data.
+     *
+     * @param data the new data
+     */
+    void setData(T data) {
+        this.data = data;
+    }
+
+    /**
+     * Sets the left child.
+     *
+     * @param left the new left child
+     */
+    void setLeft(SplayNode<T> left) {
+        this.left = left;
+    }
+
+    /**
+     * Sets the right child.
+     *
+     * @param right the new right child
+     */
+    void setRight(SplayNode<T> right) {
+        this.right = right;
+    }
+
+    @Override
+    public String toString() {
+        return "Node containing: " + data;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,312 @@
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+
+/**
+ * A self-adjusting binary search tree with BST's public API.
+ *
+ * Every access splays the accessed node (or the last node on its search
+ * path) to the root with top-down splaying, so recently and frequently used
+ * data stay near the root. Under skewed access patterns the hot data is
+ * reached in a few steps; in general, any sequence of m operations runs in
+ * O(m log n) amortized time.
+ *
+ * Since get and contains restructure the tree, even reads modify it. All
+ * operations are iterative, so a degenerate shape cannot overflow the stack.
+ *
+ * @param <T> the type of data in the tree
+ */
+public class SplayTree<T extends Comparable<? super T>> {
+
+    private SplayNode<T> root;
+    private int size;
+    private final SplayNode<T> header = new SplayNode<>(null);
+
+    /**
+     * Constructs a new, empty SplayTree.
+     */
+    public SplayTree() {}
+
+    /**
+     * Constructs a new SplayTree with the data in the Collection, added in
+     * the same order it is in the Collection.
+     *
+     * @param data the data to add
+     * @throws java.lang.IllegalArgumentException if data or any element in data
+     *                                            is null
+     */
+    public SplayTree(Collection<T> data) {
+        if (data == null || data.contains(null)) {
+            throw new IllegalArgumentException("Cannot add null data");
+        }
+        for (T element : data) {
+            add(element);
+        }
+    }
+
+    /**
+     * Top-down splay. Brings the node holding data to the root, or, if data
+     * is not in the tree, the last node on its search path.
+     * @param data the data to splay towards
+     */
+    private void splay(T data) {
+        if (root == null) {
+            return;
+        }
+        header.setLeft(null);
+        header.setRight(null);
+        SplayNode<T> leftMax = header;
+        SplayNode<T> rightMin = header;
+        SplayNode<T> curNode = root;
+        while (true) {
+            int cmp = data.compareTo(curNode.getData());
+            if (cmp < 0) {
+                if (curNode.getLeft() == null) {
+                    break;
+                }
+                if (data.compareTo(curNode.getLeft().getData()) < 0) {
+                    SplayNode<T> target = curNode.getLeft();
+                    curNode.setLeft(target.getRight());
+                    target.setRight(curNode);
+                    curNode = target;
+                    if (curNode.getLeft() == null) {
+                        break;
+                    }
+                }
+                rightMin.setLeft(curNode);
+                rightMin = curNode;
+                curNode = curNode.getLeft();
+            } else if (cmp > 0) {
+                if (curNode.getRight() == null) {
+                    break;
+                }
+                if (data.compareTo(curNode.getRight().getData()) > 0) {
+                    SplayNode<T> target = curNode.getRight();
+                    curNode.setRight(target.getLeft());
+                    target.setLeft(curNode);
+                    curNode = target;
+                    if (curNode.getRight() == null) {
+                        break;
+                    }
+                }
+                leftMax.setRight(curNode);
+                leftMax = curNode;
+                curNode = curNode.getRight();
+            } else {
+                break;
+            }
+        }
+        leftMax.setRight(curNode.getLeft());
+        rightMin.setLeft(curNode.getRight());
+        curNode.setLeft(header.getRight());
+        curNode.setRight(header.getLeft());
+        root = curNode;
+    }
+
+    /**
+     * Adds the data to the tree. The new data becomes the root.
+     *
+     * If the data is already in the tree, then nothing should be done (the
+     * duplicate shouldn't get added, and size should not be incremented).
+     *
+     * Must be O(log n) amortized.
+     *
+     * @param data the data to add
+     * @throws java.lang.IllegalArgumentException if data is null
+     */
+    public void add(T data) {
+        if (data == null) {
+            throw new IllegalArgumentException("Cannot add null data");
+        }
+        if (root == null) {
+            root = new SplayNode<>(data);
+            size++;
+            return;
+        }
+        splay(data);
+        int cmp = data.compareTo(root.getData());
+        if (cmp == 0) {
+            return;
+        }
+        SplayNode<T> newNode = new SplayNode<>(data);
+        if (cmp < 0) {
+            newNode.setLeft(root.getLeft());
+            newNode.setRight(root);
+            root.setLeft(null);
+        } else {
+            newNode.setRight(root.getRight());
+            newNode.setLeft(root);
+            root.setRight(null);
+        }
+        root = newNode;
+        size++;
+    }
+
+    /**
+     * Removes and returns the data from the tree matching the given
+     * parameter.
+     *
+     * The data is splayed to the root and replaced by the join of its
+     * subtrees, whose new root is the predecessor.
+     *
+     * Do not return the same data that was passed in. Return the data that
+     * was stored in the tree.
+     *
+     * Must be O(log n) amortized.
+     *
+     * @param data the data to remove
+     * @return the data that was removed
+     * @throws java.lang.IllegalArgumentException if data is null
+     * @throws java.util.NoSuchElementException   if the data is not in the tree
+     */
+    public T remove(T data) {
+        if (data == null) {
+            throw new IllegalArgumentException("Data is null");
+        }
+        splay(data);
+        if (root == null || data.compareTo(root.getData()) != 0) {
+            throw new NoSuchElementException("The data is not in the tree");
+        }
+        T removed = root.getData();
+        if (root.getLeft() == null) {
+            root = root.getRight();
+        } else {
+            SplayNode<T> right = root.getRight();
+            root = root.getLeft();
+            splay(data);
+            root.setRight(right);
+        }
+        size--;
+        return removed;
+    }
+
+    /**
+     * Returns the data from the tree matching the given parameter and
+     * splays it to the root.
+     *
+     * Do not return the same data that was passed in. Return the data that
+     * was stored in the tree.
+     *
+     * Must be O(log n) amortized.
+     *
+     * @param data the data to search for
+     * @return the data in the tree equal to the parameter
+     * @throws java.lang.IllegalArgumentException if data is null
+     * @throws java.util.NoSuchElementException   if the data is not in the tree
+     */
+    public T get(T data) {
+        if (data == null) {
+            throw new IllegalArgumentException("Cannot find null data");
+        }
+        splay(data);
+        if (root == null || data.compareTo(root.getData()) != 0) {
+            throw new NoSuchElementException("The data is not in the tree");
+        }
+        return root.getData();
+    }
+
+    /**
+     * Returns whether or not data matching the given parameter is contained
+     * within the tree. The last node on the search path is splayed to the
+     * root.
+     *
+     * Must be O(log n) amortized.
+     *
+     * @param data the data to search for
+     * @return true if the parameter is contained within the tree, false
+     * otherwise
+     * @throws java.lang.IllegalArgumentException if data is null
+     */
+    public boolean contains(T data) {
+        if (data == null) {
+            throw new IllegalArgumentException("Data is null");
+        }
+        splay(data);
+        return root != null && data.compareTo(root.getData()) == 0;
+    }
+
+    /**
+     * Generate an in-order traversal of the tree. Does not splay.
+     *
+     * Must be O(n).
+     *
+     * @return the inorder traversal of the tree
+     */
+    public List<T> inorder() {
+        List<T> orderList = new ArrayList<>(size);
+        Deque<SplayNode<T>> stack = new ArrayDeque<>();
+        SplayNode<T> curNode = root;
+        while (curNode != null || !stack.isEmpty()) {
+            while (curNode != null) {
+                stack.push(curNode);
+                curNode = curNode.getLeft();
+            }
+            curNode = stack.pop();
+            orderList.add(curNode.getData());
+            curNode = curNode.getRight();
+        }
+        return orderList;
+    }
+
+    /**
+     * Returns the height of the root of the tree, computed level by level.
+     *
+     * Must be O(n).
+     *
+     * @return the height of the root of the tree, -1 if the tree is empty
+     */
+    public int height() {
+        int height = -1;
+        Queue<SplayNode<T>> queue = new ArrayDeque<>();
+        if (root != null) {
+            queue.add(root);
+        }
+        while (!queue.isEmpty()) {
+            height++;
+            for (int i = queue.size(); i > 0; i--) {
+                SplayNode<T> curNode = queue.poll();
+                if (curNode.getLeft() != null) {
+                    queue.add(curNode.getLeft());
+                }
+                if (curNode.getRight() != null) {
+                    queue.add(curNode.getRight());
+                }
+            }
+        }
+        return height;
+    }
+
+    /**
+     * Clears the tree.
+     *
+     * Clears all data and resets the size.
+     *
+     * Must be O(1).
+     */
+    public void clear() {
+        root = null;
+        size = 0;
+    }
+
+    /**
+     * Returns the root of the tree.
+     *
+     * @return the root of the tree
+     */
+    public SplayNode<T> getRoot() {
+        return root;
+    }
+
+    /**
+     * Returns the size of the tree.
+     *
+     * @return the size of the tree
+     */
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,329 @@
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+/**
+ * A randomized binary search tree with BST's public API.
+ *
+ * Every node gets a random priority and the tree is kept a max-heap on the
+ * priorities by rotations. The shape is then that of a BST built by inserting
+ * in random order, whatever the actual insertion order, so the expected depth
+ * of every node is O(log n).
+ *
+ * @param <T> the type of data in the tree
+ */
+public class Treap<T extends Comparable<? super T>> {
+
+    private TreapNode<T> root;
+    private int size;
+    private final Random rand;
+
+    /**
+     * Constructs a new, empty Treap.
+     */
+    public Treap() {
+        this(new Random());
+    }
+
+    /**
+     * Constructs a new, empty Treap that draws priorities from the given
+     * Random object, so a seeded Random gives a reproducible shape.
+     *
+     * @param rand the Random object used to draw priorities
+     * @throws java.lang.IllegalArgumentException if rand is null
+     */
+    public Treap(Random rand) {
+        if (rand == null) {
+            throw new IllegalArgumentException("Cannot use null rand");
+        }
+        this.rand = rand;
+    }
+
+    /**
+     * Constructs a new Treap with the data in the Collection, added in the
+     * same order it is in the Collection.
+     *
+     * @param data the data to add
+     * @throws java.lang.IllegalArgumentException if data or any element in data
+     *                                            is null
+     */
+    public Treap(Collection<T> data) {
+        this();
+        if (data == null || data.contains(null)) {
+            throw new IllegalArgumentException("Cannot add null data");
+        }
+        for (T element : data) {
+            add(element);
+        }
+    }
+
+    /**
+     * Adds the data to the tree.
+     *
+     * The data is added as a leaf like in a regular BST and then rotated up
+     * while its priority is greater than its parent's.
+     *
+     * If the data is already in the tree, then nothing should be done (the
+     * duplicate shouldn't get added, and size should not be incremented).
+     *
+     * Must be O(log n) expected.
+     *
+     * @param data the data to add
+     * @throws java.lang.IllegalArgumentException if data is null
+     */
+    public void add(T data) {
+        if (data == null) {
+            throw new IllegalArgumentException("Cannot add null data");
+        }
+        root = addHelper(root, data);
+    }
+
+    /**
+     * Helper method for add
+     * @param curNode current TreapNode for traverse
+     * @param data the data to add
+     * @return the root of the subtree after adding
+     */
+    private TreapNode<T> addHelper(TreapNode<T> curNode, T data) {
+        if (curNode == null) {
+            size++;
+            return new TreapNode<>(data, rand.nextInt());
+        }
+        int cmp = data.compareTo(curNode.getData());
+        if (cmp < 0) {
+            curNode.setLeft(addHelper(curNode.getLeft(), data));
+            if (curNode.getLeft().getPriority() > curNode.getPriority()) {
+                curNode = rightRotation(curNode);
+            }
+        } else if (cmp > 0) {
+            curNode.setRight(addHelper(curNode.getRight(), data));
+            if (curNode.getRight().getPriority() > curNode.getPriority()) {
+                curNode = leftRotation(curNode);
+            }
+        }
+        return curNode;
+    }
+
+    /**
+     * Removes and returns the data from the tree matching the given
+     * parameter.
+     *
+     * The node is rotated down towards its higher-priority child until it
+     * has at most one child, then replaced by that child.
+     *
+     * Do not return the same data that was passed in. Return the data that
+     * was stored in the tree.
+     *
+     * Must be O(log n) expected.
+     *
+     * @param data the data to remove
+     * @return the data that was removed
+     * @throws java.lang.IllegalArgumentException if data is null
+     * @throws java.util.NoSuchElementException   if the data is not in the tree
+     */
+    public T remove(T data) {
+        if (data == null) {
+            throw new IllegalArgumentException("Data is null");
+        }
+        TreapNode<T> dummy = new TreapNode<>(null, 0);
+        root = removeHelper(root, data, dummy);
+        size--;
+        return dummy.getData();
+    }
+
+    /**
+     * Helper method for remove
+     * @param curNode current TreapNode for traverse
+     * @param data the data to remove
+     * @param dummy dummy place for removed data
+     * @return the root of the subtree after removing
+     */
+    private TreapNode<T> removeHelper(TreapNode<T> curNode, T data, TreapNode<T> dummy) {
+        if (curNode == null) {
+            throw new NoSuchElementException("The data is not in the tree");
+        }
+        int cmp = data.compareTo(curNode.getData());
+        if (cmp < 0) {
+            curNode.setLeft(removeHelper(curNode.getLeft(), data, dummy));
+        } else if (cmp > 0) {
+            curNode.setRight(removeHelper(curNode.getRight(), data, dummy));
+        } else if (curNode.getLeft() == null) {
+            dummy.setData(curNode.getData());
+            return curNode.getRight();
+        } else if (curNode.getRight() == null) {
+            dummy.setData(curNode.getData());
+            return curNode.getLeft();
+        } else if (curNode.getLeft().getPriority() > curNode.getRight().getPriority()) {
+            curNode = rightRotation(curNode);
+            curNode.setRight(removeHelper(curNode.getRight(), data, dummy));
+        } else {
+            curNode = leftRotation(curNode);
+            curNode.setLeft(removeHelper(curNode.getLeft(), data, dummy));
+        }
+        return curNode;
+    }
+
+    /**
+     * method for the left rotation
+     * @param curNode current node
+     * @return rotated node
+     */
+    private TreapNode<T> leftRotation(TreapNode<T> curNode) {
+        TreapNode<T> target = curNode.getRight();
+        curNode.setRight(target.getLeft());
+        target.setLeft(curNode);
+        return target;
+    }
+
+    /**
+     * method for the right rotation
+     * @param curNode current node
+     * @return rotated node
+     */
+    private TreapNode<T> rightRotation(TreapNode<T> curNode) {
+        TreapNode<T> target = curNode.getLeft();
+        curNode.setLeft(target.getRight());
+        target.setRight(curNode);
+        return target;
+    }
+
+    /**
+     * Returns the data from the tree matching the given parameter.
+     *
+     * Do not return the same data that was passed in. Return the data that
+     * was stored in the tree.
+     *
+     * Must be O(log n) expected.
+     *
+     * @param data the data to search for
+     * @return the data in the tree equal to the parameter
+     * @throws java.lang.IllegalArgumentException if data is null
+     * @throws java.util.NoSuchElementException   if the data is not in the tree
+     */
+    public T get(T data) {
+        if (data == null) {
+            throw new IllegalArgumentException("Cannot find null data");
+        }
+        TreapNode<T> curNode = root;
+        while (curNode != null) {
+            int cmp = data.compareTo(curNode.getData());
+            if (cmp < 0) {
+                curNode = curNode.getLeft();
+            } else if (cmp > 0) {
+                curNode = curNode.getRight();
+            } else {
+                return curNode.getData();
+            }
+        }
+        throw new NoSuchElementException("The data is not in the tree");
+    }
+
+    /**
+     * Returns whether or not data matching the given parameter is contained
+     * within the tree.
+     *
+     * Must be O(log n) expected.
+     *
+     * @param data the data to search for
+     * @return true if the parameter is contained within the tree, false
+     * otherwise
+     * @throws java.lang.IllegalArgumentException if data is null
+     */
+    public boolean contains(T data) {
+        if (data == null) {
+            throw new IllegalArgumentException("Data is null");
+        }
+        TreapNode<T> curNode = root;
+        while (curNode != null) {
+            int cmp = data.compareTo(curNode.getData());
+            if (cmp < 0) {
+                curNode = curNode.getLeft();
+            } else if (cmp > 0) {
+                curNode = curNode.getRight();
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Generate an in-order traversal of the tree.
+     *
+     * Must be O(n).
+     *
+     * @return the inorder traversal of the tree
+     */
+    public List<T> inorder() {
+        List<T> orderList = new ArrayList<>(size);
+        Deque<TreapNode<T>> stack = new ArrayDeque<>();
+        TreapNode<T> curNode = root;
+        while (curNode != null || !stack.isEmpty()) {
+            while (curNode != null) {
+                stack.push(curNode);
+                curNode = curNode.getLeft();
+            }
+            curNode = stack.pop();
+            orderList.add(curNode.getData());
+            curNode = curNode.getRight();
+        }
+        return orderList;
+    }
+
+    /**
+     * Returns the height of the root of the tree.
+     *
+     * Must be O(n).
+     *
+     * @return the height of the root of the tree, -1 if the tree is empty
+     */
+    public int height() {
+        return heightHelper(root);
+    }
+
+    /**
+     * Helper method for height
+     * @param curNode current TreapNode for traverse
+     * @return Node's height
+     */
+    private int heightHelper(TreapNode<T> curNode) {
+        if (curNode == null) {
+            return -1;
+        }
+        return Math.max(heightHelper(curNode.getLeft()), heightHelper(curNode.getRight())) + 1;
+    }
+
+    /**
+     * Clears the tree.
+     *
+     * Clears all data and resets the size.
+     *
+     * Must be O(1).
+     */
+    public void clear() {
+        root = null;
+        size = 0;
+    }
+
+    /**
+     * Returns the root of the tree.
+     *
+     * @return the root of the tree
+     */
+    public TreapNode<T> getRoot() {
+        return root;
+    }
+
+    /**
+     * Returns the size of the tree.
+     *
+     * @return the size of the tree
+     */
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,86 @@
+public class TreapNode<T extends Comparable<? super T>> {
+
+    private T data;
+    private TreapNode<T> left;
+    private TreapNode<T> right;
+    private final int priority;
+
+    /**
+     * Constructs a TreapNode with the given data and priority.
+     *
+     * @param data     the data stored in the new node
+     * @param priority the heap priority of the new node
+     */
+    TreapNode(T data, int priority) {
+        this.data = data;
+        this.priority = priority;
+    }
+
+    /**
+     * Gets the data.
+     *
+     * @return the data
+     */
+    T getData() {
+        return data;
+    }
+
+    /**
+     * Gets the priority.
+     *
+     * @return the priority
+     */
+    int getPriority() {
+        return priority;
+    }
+
+    /**
+     * Gets the left child.
+     *
+     * @return the left child
+     */
+    TreapNode<T> getLeft() {
+        return left;
+    }
+
+    /**
+     * Gets the right child.
+     *
+     * @return the right child
+     */
+    TreapNode<T> getRight() {
+        return right;
+    }
+
+    /**
+     * Sets the data.
+     *
+     * @param data the new data
+     */
+    void setData(T data) {
+        this.data = data;
+    }
+
+    /**
+     * Sets the left child.
+     *
+     * @param left the new left child
+     */
+    void setLeft(TreapNode<T> left) {
+        this.left = left;
+    }
+
+    /**
+     * Sets the right child.
+     *
+     * @param right the new right child
+     */
+    void setRight(TreapNode<T> right) {
+        this.right = right;
+    }
+
+    @Override
+    public String toString() {
+        return "Node containing: " + data + " (priority " + priority + ")";
+    }
+}
\ No newline at end of file